@@ -0,0 +1,92 @@
+package dynamicJUnit;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.runner.notification.RunNotifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import util.base.LogWriter;
+
+/**
+ * {@link dynamicJUnit.DynamicTestsRunner DynamicTestsRunner}がテストケース1件を実行する際の、
+ * テストの内容以外の処理時間を計測するベンチマークです。<br />
+ * 何もしないテストケースを{@value #CASES}件実行し、1件あたりの処理時間を求めます。
+ * ログの出力を含みます。標準出力への出力は計測結果の表示の妨げになるため、計測中は破棄します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DynamicTestsRunnerBenchmark {
+	static final int CASES = 1000;
+
+	/** ワーカースレッド数です。 */
+	@Param({"1", "4"})
+	public int threads;
+
+	private DynamicTestsRunner runner;
+	private PrintStream stdout;
+
+	/**
+	 * 何もしないテストケースを生成するTestCaseGeneratorです。
+	 */
+	public static class NoopGenerator implements TestCaseGenerator {
+		@Override
+		public List<TestCase<?, ?>> generateTestCases() {
+			return IntCaseTable.range("case %2$s", 1, CASES, new IntCaseTable.Expectation<Object>() {
+				@Override
+				public Object of(int param) { return null; }
+			});
+		}
+		@Override public <T1, T2> void invokeTestCase(TestCase<T1, T2> testCase) {}
+		@Override public void setUp() {}
+		@Override public void tearDown() {}
+	}
+
+	@Setup
+	public void setUp() throws Throwable {
+		System.setProperty("dynamicJUnit.threads", String.valueOf(threads));
+		runner = new DynamicTestsRunner(NoopGenerator.class);
+		stdout = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override public void write(int b) {}
+			@Override public void write(byte[] b, int off, int len) {}
+		}));
+	}
+
+	/**
+	 * 書き込み待ちのログを計測の対象外とするため、繰り返しごとに書き出します。
+	 */
+	@TearDown(Level.Iteration)
+	public void flush() { LogWriter.getInstance().flush(); }
+
+	@TearDown
+	public void tearDown() {
+		System.setOut(stdout);
+		System.clearProperty("dynamicJUnit.threads");
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CASES)
+	public void run() { runner.run(new RunNotifier()); }
+}
@@ -0,0 +1,65 @@
+package dynamicJUnit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link dynamicJUnit.TestCase TestCase}の生成・テスト名の書式化の処理時間を計測するベンチマークです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TestCaseBenchmark {
+	private static final String FORMAT = "検証値: [%2$s] の時、実測値が[%1$s] であること。";
+	private static final int SIZE = 1 << 16;
+
+	private IntCaseTable<Object> table;
+	private int i;
+
+	@Setup
+	public void setUp() {
+		table = IntCaseTable.range(FORMAT, 1, SIZE, new IntCaseTable.Expectation<Object>() {
+			@Override
+			public Object of(int param) { return param; }
+		});
+	}
+
+	/**
+	 * テスト名を生成時に書式化するTestCaseの生成です。
+	 */
+	@Benchmark
+	public TestCase<?, ?> boxedTestCase() { return new TestCase<Object, Integer>(FORMAT, "Fizz", ++i); }
+
+	/**
+	 * テスト名を遅延して書式化するIntTestCaseの生成です。
+	 */
+	@Benchmark
+	public TestCase<?, ?> intTestCase() { return new IntTestCase<Object>(FORMAT, "Fizz", ++i); }
+
+	/**
+	 * IntTestCaseのテスト名の書式化です。
+	 */
+	@Benchmark
+	public String intTestCaseName() { return new IntTestCase<Object>(FORMAT, "Fizz", ++i).getName(); }
+
+	/**
+	 * IntCaseTableからのテストケースの取り出しです。
+	 */
+	@Benchmark
+	public TestCase<?, ?> tableGet() { return table.get(++i & (SIZE - 1)); }
+}
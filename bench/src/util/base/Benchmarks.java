@@ -0,0 +1,134 @@
+package util.base;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * ベンチマークを実行し、計測結果を保存するクラスです。<br />
+ * 計測結果はプロジェクトの logs/bench フォルダに、JMHのJSON形式(実行日時.json)と、
+ * ベンチマークごとの1回あたりの処理時間を格納したプロパティファイル(実行日時.properties)で出力します。<br />
+ * システムプロパティ bench.baseline に以前の計測結果のプロパティファイルを指定した場合は、
+ * 処理時間が bench.tolerance (既定値は0.2) の割合を超えて増加したベンチマークを出力し、終了コード1で終了します。
+ * 出力先フォルダは bench.output で変更できます。
+ *
+ * <pre>
+ * java -Dbench.baseline=logs/bench/baseline.properties util.base.Benchmarks [ベンチマーク名の正規表現]
+ * </pre>
+ *
+ * ベンチマークはseleniumUtilityプロジェクトに依存する別のEclipseプロジェクト(bench フォルダ)です。
+ * 実行にはJDK 7以上と、JMHのライブラリ(jmh-core・jmh-generator-annprocess)が必要です。
+ * ライブラリはユーザーライブラリ jmh_libs に登録し、注釈処理(.factorypath)用にクラスパス変数 JMH_HOME にライブラリのフォルダを設定します。
+ * Eclipseから実行した場合、作業ディレクトリは bench フォルダになります。
+ * ベンチマークは全て1回あたりの処理時間(Mode.AverageTime)で計測するため、値が小さいほど高速です。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class Benchmarks {
+	/** 既定で実行するベンチマークです。 */
+	private static final String DEFAULT_INCLUDE = "(util\\.base|dynamicJUnit)\\..*Benchmark";
+
+	private Benchmarks() {}
+
+	/**
+	 * ベンチマークを実行します。
+	 *
+	 * @param args 実行するベンチマーク名の正規表現。省略した場合は全てのベンチマークを実行します。
+	 * @throws RunnerException ベンチマークの実行に失敗した場合。
+	 * @throws IOException 計測結果の読み書きに失敗した場合。
+	 */
+	public static void main(String[] args) throws RunnerException, IOException {
+		File dir = new File(System.getProperty("bench.output", ProjectInfo.absolutePath + "/logs/bench/"));
+		dir.mkdirs();
+		String name = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
+		Collection<RunResult> results = new Runner(new OptionsBuilder()
+			.include(args.length > 0 ? args[0] : DEFAULT_INCLUDE)
+			.resultFormat(ResultFormatType.JSON)
+			.result(new File(dir, name + ".json").getAbsolutePath())
+			.build()).run();
+
+		Properties scores = scores(results);
+		store(scores, new File(dir, name + ".properties"));
+
+		String baseline = System.getProperty("bench.baseline");
+		if (baseline == null) return;
+		List<String> regressions = compare(load(new File(baseline)), scores, Double.parseDouble(System.getProperty("bench.tolerance", "0.2")));
+		for (String s : regressions) System.out.println(s);
+		if (!regressions.isEmpty()) System.exit(1);
+	}
+
+	/**
+	 * 計測結果をベンチマーク名とパラメータをキー、1回あたりの処理時間を値とするプロパティに変換します。
+	 *
+	 * @param results 計測結果。
+	 * @return ベンチマーク名[:パラメータ名=値...] をキーとするプロパティ。
+	 */
+	public static Properties scores(Collection<RunResult> results) {
+		Properties scores = new Properties();
+		for (RunResult r : results) {
+			StringBuilder key = new StringBuilder(r.getParams().getBenchmark());
+			Collection<String> params = r.getParams().getParamsKeys();
+			if (params != null) {
+				for (String p : new TreeSet<String>(params)) key.append(':').append(p).append('=').append(r.getParams().getParam(p));
+			}
+			scores.setProperty(key.toString(), String.valueOf(r.getPrimaryResult().getScore()));
+		}
+		return scores;
+	}
+
+	/**
+	 * 以前の計測結果と比べて処理時間が増加したベンチマークを返します。
+	 * 以前の計測結果に無いベンチマークは対象外です。
+	 *
+	 * @param baseline 以前の計測結果。
+	 * @param current 今回の計測結果。
+	 * @param tolerance 許容する処理時間の増加の割合。0.2の場合は20%までの増加を許容します。
+	 * @return 処理時間が許容範囲を超えて増加したベンチマークの説明。
+	 */
+	public static List<String> compare(Properties baseline, Properties current, double tolerance) {
+		List<String> regressions = new ArrayList<String>();
+		for (String key : new TreeSet<String>(current.stringPropertyNames())) {
+			String before = baseline.getProperty(key);
+			if (before == null) continue;
+			double b = Double.parseDouble(before), c = Double.parseDouble(current.getProperty(key));
+			if (c > b * (1 + tolerance)) regressions.add(String.format("Regression. %s: %.3f -> %.3f (%+.1f%%)", key, b, c, (c / b - 1) * 100));
+		}
+		return regressions;
+	}
+
+	private static Properties load(File file) throws IOException {
+		Properties p = new Properties();
+		InputStream in = new FileInputStream(file);
+		try {
+			p.load(in);
+		} finally {
+			in.close();
+		}
+		return p;
+	}
+
+	private static void store(Properties p, File file) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			p.store(out, "average time per operation");
+		} finally {
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package util.base;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+/**
+ * {@link util.base.Selector Selector}による要素の取得・操作の処理時間を計測するベンチマークです。<br />
+ * HtmlUnitDriverで{@link util.base.FixtureServer FixtureServer}から配信したhtmlを表示して計測するため、
+ * ブラウザ・外部のネットワークを必要としません。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SelectorBenchmark {
+	/** 表示するhtmlのli要素の数です。 */
+	@Param({"10", "1000"})
+	public int rows;
+
+	private WebDriver driver;
+
+	@Setup
+	public void setUp() {
+		StringBuilder sb = new StringBuilder("<html><body><p id=\"target\" class=\"lead\">target</p><ul id=\"list\">");
+		for (int i = 0; i < rows; i++) sb.append("<li class=\"row\">row ").append(i).append("</li>");
+		sb.append("</ul></body></html>");
+		driver = new HtmlUnitDriver(true);
+		driver.get(FixtureServer.getInstance().register(sb.toString()));
+	}
+
+	@TearDown
+	public void tearDown() { driver.quit(); }
+
+	@Benchmark
+	public WebElement getElement() { return new Selector("#list li", driver).getElement(); }
+
+	@Benchmark
+	public int getElements() { return new Selector("#list li", driver).getElements().size(); }
+
+	@Benchmark
+	public int count() { return new Selector("#list li", driver).count(); }
+
+	/**
+	 * 同じSelectorで3回操作し、操作ごとに要素を検索する場合です。
+	 */
+	@Benchmark
+	public void chain(Blackhole bh) { chain(new Selector("#target", driver), bh); }
+
+	/**
+	 * 同じSelectorで3回操作し、最初に取得した要素を再利用する場合です。
+	 */
+	@Benchmark
+	public void cachedChain(Blackhole bh) { chain(new Selector("#target", driver).cached(), bh); }
+
+	private static void chain(Selector s, Blackhole bh) {
+		bh.consume(s.getText());
+		bh.consume(s.getAttribute("class"));
+		bh.consume(s.isDisplayed());
+	}
+}
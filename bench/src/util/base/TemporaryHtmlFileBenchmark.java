@@ -0,0 +1,50 @@
+package util.base;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * テスト用のhtmlの生成の処理時間を計測するベンチマークです。<br />
+ * {@link util.base.TestBase#createTemporaryHtmlFile createTemporaryHtmlFile}で同じ内容・新しい内容のhtmlファイルを生成する場合と、
+ * {@link util.base.FixtureServer#register FixtureServer}にhtmlを登録する場合を比較します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TemporaryHtmlFileBenchmark extends TestBase {
+	private static final String BODY = "<div id=\"fixture\"><p>fixture</p></div>";
+	private int n;
+
+	/**
+	 * 同じ内容のhtmlの場合です。2回目以降は生成済みのファイルを返します。
+	 */
+	@Benchmark
+	public File sameContent() { return createTemporaryHtmlFile(BODY); }
+
+	/**
+	 * 毎回異なる内容のhtmlの場合です。毎回ファイルを生成します。
+	 */
+	@Benchmark
+	public File newContent() { return createTemporaryHtmlFile(BODY + (n++)); }
+
+	/**
+	 * 毎回異なる内容のhtmlをメモリ上に登録する場合です。
+	 */
+	@Benchmark
+	public String registerFixture() { return FixtureServer.getInstance().register(createHtml(BODY + (n++))); }
+}
@@ -0,0 +1,79 @@
+package util.base;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.runner.Description;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link util.base.TestBase.MyTestWatcher MyTestWatcher}によるログ出力の処理時間を計測するベンチマークです。<br />
+ * ログファイルは一時ファイルディレクトリに出力します。
+ * 標準出力への出力は計測結果の表示の妨げになるため、計測中は破棄します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TestWatcherBenchmark {
+	private TestBase.MyTestWatcher watcher;
+	private Description des;
+	private PrintStream stdout;
+
+	@Setup
+	public void setUp() {
+		final File dir = new File(System.getProperty("java.io.tmpdir"), "TestWatcherBenchmark");
+		watcher = new TestBase() {
+			@Override
+			protected String getLogSavePath() {
+				dir.mkdirs();
+				return dir.getAbsolutePath();
+			}
+		}.createTestWatcher();
+		des = Description.createTestDescription(TestWatcherBenchmark.class, "test");
+		stdout = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override public void write(int b) {}
+			@Override public void write(byte[] b, int off, int len) {}
+		}));
+	}
+
+	/**
+	 * 書き込み待ちのログを計測の対象外とするため、繰り返しごとに書き出します。
+	 */
+	@TearDown(Level.Iteration)
+	public void flush() { watcher.flush(); }
+
+	@TearDown
+	public void tearDown() { System.setOut(stdout); }
+
+	/**
+	 * 成功したテスト1件分のログ出力です。
+	 */
+	@Benchmark
+	public void succeeded() {
+		watcher.starting(des);
+		watcher.succeeded(des);
+		watcher.finished(des);
+	}
+
+	@Benchmark
+	public void log() { watcher.log("Benchmark", "message"); }
+}
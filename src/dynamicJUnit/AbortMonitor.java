@@ -0,0 +1,109 @@
+package dynamicJUnit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * テストケースの実行結果を記録し、{@link dynamicJUnit.AbortPolicy AbortPolicy}で設定した打ち切りの条件を判定するクラスです。<br />
+ * 実行結果はテストケースの順番に記録します。一度条件を満たした後は打ち切りの状態が続きます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class AbortMonitor {
+	/** 同じ種類の例外を数える件数の上限です。上限を超えた種類は数えません。 */
+	private static final int MAX_SIGNATURES = 1000;
+
+	private final int consecutiveFailures;
+	private final int failureRatePercent;
+	private final int minCases;
+	private final int repeatedSignature;
+
+	private int cases;
+	private int failures;
+	private int consecutive;
+	private final Map<String, Integer> signatures = new HashMap<String, Integer>();
+	private volatile String reason;
+
+	/**
+	 * @param consecutiveFailures 連続して失敗したテストケースの件数の上限。0以下の場合は判定しません。
+	 * @param failureRatePercent 失敗したテストケースの割合(%)の上限。0以下の場合は判定しません。
+	 * @param minCases failureRatePercentの判定を始めるまでに実行するテストケースの件数。
+	 * @param repeatedSignature 同じ種類の例外で失敗したテストケースの件数の上限。0以下の場合は判定しません。
+	 */
+	public AbortMonitor(int consecutiveFailures, int failureRatePercent, int minCases, int repeatedSignature) {
+		this.consecutiveFailures = consecutiveFailures;
+		this.failureRatePercent = failureRatePercent;
+		this.minCases = minCases;
+		this.repeatedSignature = repeatedSignature;
+	}
+
+	/**
+	 * テストクラスの{@link dynamicJUnit.AbortPolicy AbortPolicy}アノテーションとシステムプロパティからAbortMonitorを生成します。
+	 *
+	 * @param klass TestCaseGeneratorの実装クラス。
+	 * @return AbortMonitor型オブジェクト。打ち切りの条件が設定されていない場合はnull。
+	 */
+	public static AbortMonitor of(Class<?> klass) {
+		AbortPolicy policy = klass.getAnnotation(AbortPolicy.class);
+		int consecutive = Integer.getInteger("dynamicJUnit.abort.consecutiveFailures", policy == null ? 0 : policy.consecutiveFailures());
+		int rate = Integer.getInteger("dynamicJUnit.abort.failureRatePercent", policy == null ? 0 : policy.failureRatePercent());
+		int minCases = Integer.getInteger("dynamicJUnit.abort.minCases", policy == null ? 10 : policy.minCases());
+		int repeated = Integer.getInteger("dynamicJUnit.abort.repeatedSignature", policy == null ? 0 : policy.repeatedSignature());
+		if (consecutive <= 0 && rate <= 0 && repeated <= 0) return null;
+		return new AbortMonitor(consecutive, rate, minCases, repeated);
+	}
+
+	/**
+	 * テストケース1件の実行結果を記録し、打ち切りの条件を判定します。
+	 *
+	 * @param e テストが失敗した場合は発生した例外。成功した場合はnull。
+	 * @return 打ち切る場合はtrue。
+	 */
+	public synchronized boolean record(Throwable e) {
+		cases++;
+		if (e == null) {
+			consecutive = 0;
+		} else {
+			failures++;
+			consecutive++;
+			if (consecutiveFailures > 0 && consecutive >= consecutiveFailures && reason == null) {
+				reason = "aborted after " + consecutive + " consecutive failures";
+			}
+			if (repeatedSignature > 0 && reason == null) {
+				String signature = signature(e);
+				Integer n = signatures.get(signature);
+				n = (n == null) ? 1 : n + 1;
+				if (n >= repeatedSignature) reason = "aborted after " + n + " failures with " + signature;
+				else if (signatures.size() < MAX_SIGNATURES || signatures.containsKey(signature)) signatures.put(signature, n);
+			}
+		}
+		if (failureRatePercent > 0 && cases >= minCases && failures * 100L >= (long) failureRatePercent * cases && reason == null) {
+			reason = "aborted after " + failures + " of " + cases + " cases failed";
+		}
+		return reason != null;
+	}
+
+	/**
+	 * 打ち切りの条件を満たしたかどうかを返します。どのスレッドからも呼び出せます。
+	 */
+	public boolean isAborted() { return reason != null; }
+
+	/**
+	 * 打ち切った理由を返します。
+	 *
+	 * @return 打ち切った理由。打ち切っていない場合はnull。
+	 */
+	public String getReason() { return reason; }
+
+	/**
+	 * 例外の種類とメッセージの1行目を連結した文字列を返します。数字は#に置き換えます。
+	 */
+	static String signature(Throwable e) {
+		String message = e.getMessage();
+		if (message != null) {
+			if (message.indexOf('\n') >= 0) message = message.substring(0, message.indexOf('\n'));
+			message = message.replaceAll("[0-9]+", "#");
+		}
+		return e.getClass().getName() + ": " + message;
+	}
+}
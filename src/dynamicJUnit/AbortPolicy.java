@@ -0,0 +1,45 @@
+package dynamicJUnit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link dynamicJUnit.DynamicTestsRunner DynamicTestsRunner}でテストクラスの実行を途中で打ち切る条件を設定します。<br />
+ * テスト対象のサイトが停止している場合等に、全てのテストケースが待ち時間の上限まで待って失敗することを防ぎます。
+ * 条件を満たした時点で、まだ実行していないテストケースはスキップとして通知されます。<br />
+ * 各条件は0以下の場合は使用しません。
+ * システムプロパティ dynamicJUnit.abort.consecutiveFailures 、dynamicJUnit.abort.failureRatePercent 、
+ * dynamicJUnit.abort.minCases 、dynamicJUnit.abort.repeatedSignature を指定した場合は、その値が優先されます。
+ *
+ * @author tatsuo1234567@gmail.com
+ * @see dynamicJUnit.AbortMonitor
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AbortPolicy {
+	/**
+	 * 連続して失敗したテストケースの件数がこの値に達した場合に打ち切ります。
+	 */
+	int consecutiveFailures() default 0;
+
+	/**
+	 * 失敗したテストケースの割合(%)がこの値以上になった場合に打ち切ります。
+	 * 判定はminCases件のテストケースを実行した後から行います。
+	 */
+	int failureRatePercent() default 0;
+
+	/**
+	 * failureRatePercentの判定を始めるまでに実行するテストケースの件数。
+	 */
+	int minCases() default 10;
+
+	/**
+	 * 同じ種類・同じメッセージの例外で失敗したテストケースの件数がこの値に達した場合に打ち切ります。
+	 * メッセージは1行目のみを比較し、数字の違いは無視します。
+	 */
+	int repeatedSignature() default 0;
+}
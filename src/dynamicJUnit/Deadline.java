@@ -0,0 +1,33 @@
+package dynamicJUnit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link dynamicJUnit.DynamicTestsRunner DynamicTestsRunner}でテストケース・テストクラスの実行時間の上限を設定します。<br />
+ * テストケースの実行時間が上限を超えた場合、テストケースを実行しているスレッドに割り込み、
+ * {@link dynamicJUnit.TestCaseTimeoutException TestCaseTimeoutException}で失敗として通知します。
+ * 実行していたTestCaseGeneratorのInstanceは
+ * {@link dynamicJUnit.TestCaseGenerator#tearDown tearDown}メソッドで終了され、新しいInstanceに置き換えられます。<br />
+ * テストクラスの実行時間が上限を超えた場合、まだ実行していないテストケースはスキップとして通知されます。<br />
+ * システムプロパティ dynamicJUnit.caseTimeoutMillis 、dynamicJUnit.suiteTimeoutMillis を指定した場合は、その値が優先されます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Deadline {
+	/**
+	 * テストケース1件の実行時間の上限(ミリ秒)。0以下の場合は上限を設けません。
+	 */
+	long caseMillis() default 0;
+
+	/**
+	 * テストクラス全体の実行時間の上限(ミリ秒)。0以下の場合は上限を設けません。
+	 */
+	long suiteMillis() default 0;
+}
@@ -1,14 +1,34 @@
 package dynamicJUnit;
 
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.runner.Description;
 import org.junit.runner.Runner;
 import org.junit.runner.notification.Failure;
 import org.junit.runner.notification.RunNotifier;
+import org.openqa.selenium.WebDriver;
 
+import util.base.DaemonThreadFactory;
 import util.base.TestBase;
 import util.base.TestBase.MyTestWatcher;
+import util.base.VirtualThreads;
+import util.base.WebDriverMetrics;
 
 /**
  * 動的テストケースの生成・実行を行うクラスです。
@@ -26,13 +46,79 @@ public class DynamicTestsRunner extends Runner {
 	 */
 	private final TestCaseGenerator generator;
 	/**
-	 * TestCaseGeneratorから生成されたTestCaseオブジェクトのリストを格納します。
+	 * TestCaseGeneratorから生成されたTestCaseオブジェクトのリストを格納します。<br />
+	 * TestCaseGeneratorが{@link dynamicJUnit.StreamingTestCaseGenerator StreamingTestCaseGenerator}の場合はnullです。
 	 */
 	private final List<TestCase<?, ?>> testCases;
 	/**
 	 * テストケースの開始・終了・成功・失敗を監視するTestWatcherクラスの実装クラスのInstanceを格納します。
 	 */
 	private final MyTestWatcher watcher;
+	/**
+	 * テストケースを実行するワーカースレッド数を格納します。1の場合は呼び出し元のスレッドで順番に実行します。
+	 *
+	 * @see dynamicJUnit.Parallel
+	 */
+	private final int threads;
+	/**
+	 * 同時に使用するTestCaseGeneratorのInstance(ブラウザのセッション)の数を格納します。ワーカースレッド数以下の値です。
+	 *
+	 * @see dynamicJUnit.Parallel#sessions
+	 */
+	private final int sessions;
+	/**
+	 * trueの場合、ワーカースレッドと実行時間の上限を設けたテストケースを実行するスレッドに仮想スレッドを使用します。
+	 *
+	 * @see dynamicJUnit.Parallel#virtualThreads
+	 */
+	private final boolean virtualThreads;
+	/**
+	 * テストケースを複数のプロセスに分割して実行する場合の設定を格納します。分割しない場合はnullです。
+	 *
+	 * @see dynamicJUnit.Shard
+	 */
+	private final Shard shard;
+	/**
+	 * テストケース1件の実行時間の上限(ミリ秒)を格納します。0の場合は上限を設けません。
+	 *
+	 * @see dynamicJUnit.Deadline
+	 */
+	private final long caseTimeoutMillis;
+	/**
+	 * テストクラス全体の実行時間の上限(ミリ秒)を格納します。0の場合は上限を設けません。
+	 *
+	 * @see dynamicJUnit.Deadline
+	 */
+	private final long suiteTimeoutMillis;
+	/**
+	 * テストクラス全体の実行期限の{@link java.lang.System#nanoTime System.nanoTime}の値です。
+	 * runメソッドの実行ごとに設定されます。期限が無い場合は0です。
+	 */
+	private volatile long suiteDeadlineNanos;
+	/**
+	 * テストケースごとの実行時間を集計します。runメソッドの実行ごとに生成されます。
+	 */
+	private TestTimings timings;
+	/**
+	 * テストクラスの実行を途中で打ち切る条件を判定します。runメソッドの実行ごとに生成されます。条件が無い場合はnullです。
+	 *
+	 * @see dynamicJUnit.AbortPolicy
+	 */
+	private AbortMonitor abort;
+	/**
+	 * テストクラスのDescriptionを格納します。最初に参照された時に一度だけ生成されます。
+	 */
+	private Description description;
+	/**
+	 * テストケースのDescriptionを実行する順番に格納します。
+	 * テストケースの件数が dynamicJUnit.maxDescribedCases を超える場合、
+	 * またはTestCaseGeneratorが{@link dynamicJUnit.StreamingTestCaseGenerator StreamingTestCaseGenerator}の場合はnullです。
+	 */
+	private List<Description> children;
+	/**
+	 * 次に実行するテストケースのchildrenの位置です。runメソッドの呼び出し元のスレッドからのみ参照されます。
+	 */
+	private int childCursor;
 	/**
 	 * @param klass
 	 * @throws Throwable
@@ -40,11 +126,27 @@ public class DynamicTestsRunner extends Runner {
 	public DynamicTestsRunner(Class<?> klass) throws Throwable {
 		cls = klass;
 		generator = (TestCaseGenerator)cls.newInstance();
-		testCases = generator.generateTestCases();
+		testCases = (generator instanceof StreamingTestCaseGenerator) ? null : generator.generateTestCases();
+		threads = resolveThreads(cls);
+		Parallel parallel = cls.getAnnotation(Parallel.class);
+		int n = Integer.getInteger("dynamicJUnit.sessions", parallel == null ? 0 : parallel.sessions());
+		sessions = (n > 0 && n < threads) ? n : threads;
+		virtualThreads = Boolean.parseBoolean(System.getProperty("dynamicJUnit.virtualThreads", String.valueOf(parallel != null && parallel.virtualThreads())));
+		shard = Shard.fromSystemProperties();
+		Deadline deadline = cls.getAnnotation(Deadline.class);
+		caseTimeoutMillis = Math.max(0, Long.getLong("dynamicJUnit.caseTimeoutMillis", deadline == null ? 0 : deadline.caseMillis()));
+		suiteTimeoutMillis = Math.max(0, Long.getLong("dynamicJUnit.suiteTimeoutMillis", deadline == null ? 0 : deadline.suiteMillis()));
 		watcher = new TestBase() {
 			// ログファイル出力先フォルダ名にTestCaseGeneratorの実装クラス名を設定する。
 			@Override
 			protected String getLogSaveDirName() { return generator.getClass().getPackage().getName(); }
+			// スクリーンショット保存先フォルダ名にTestCaseGeneratorの実装クラスのパッケージ名を設定する。
+			@Override
+			protected String getScreenshotSavePath() {
+				File dir = new File(screenshotSavePath + "/" + generator.getClass().getPackage().getName() + "/");
+				dir.mkdirs();
+				return dir.getAbsolutePath();
+			}
 		}.createTestWatcher();
 	}
 
@@ -57,21 +159,83 @@ public class DynamicTestsRunner extends Runner {
 		Description des = getDescription();
 		notifier.fireTestStarted(des);
 		watcher.starting(des);
-		generator.setUp();
-		for (TestCase<?, ?> testCase : testCases) invokeTest(notifier, testCase);
-		generator.tearDown();
+		timings = new TestTimings(Integer.getInteger("dynamicJUnit.slowest", 10));
+		abort = AbortMonitor.of(cls);
+		suiteDeadlineNanos = (suiteTimeoutMillis > 0) ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(suiteTimeoutMillis) : 0;
+		if (shard != null) shard.begin(cls);
+		childCursor = 0;
+		if (threads > 1) {
+			invokeTestsInParallel(notifier, testCaseIterator());
+		} else {
+			setUp(generator);
+			CaseExecutor executor = new CaseExecutor(generator);
+			try {
+				for (Iterator<TestCase<?, ?>> it = testCaseIterator(); it.hasNext();) invokeTest(notifier, executor, it.next());
+			} finally {
+				executor.close();
+			}
+		}
+		if (shard != null) shard.end();
 		notifier.fireTestFinished(des);
 		watcher.finished(des);
+		watcher.log("Summary", cls.getName() + (shard == null ? "" : " shard " + shard.index + "/" + shard.count) + "\n" + timings.summary());
+		if (WebDriverMetrics.getInstance().isEnabled()) watcher.log("WebDriver", cls.getName() + "\n" + WebDriverMetrics.getInstance().summary(10));
+		watcher.flush();
 	}
 
 	/**
-	 * テストクラスのDescriptionを生成します。
+	 * テストクラスのDescriptionを返します。Descriptionは最初の呼び出し時に一度だけ生成されます。<br />
+	 * 分割して実行する場合は、このプロセスで実行するテストケースのみを含みます。<br />
+	 * テストケースの件数がシステムプロパティ dynamicJUnit.maxDescribedCases (既定値{@value #MAX_DESCRIBED_CASES}件)を超える場合は、
+	 * メモリの使用量を抑えるために{@link dynamicJUnit.StreamingTestCaseGenerator StreamingTestCaseGenerator}と同じく子要素を含みません。
+	 * テストケースのDescriptionは実行時に生成されます。
 	 */
 	@Override
-	public Description getDescription() {
-		Description des = Description.createSuiteDescription(cls.getName());
-		for (TestCase<?, ?> testCase : testCases) des.addChild(getDescription(testCase.name));
-		return des;
+	public synchronized Description getDescription() {
+		if (description == null) {
+			description = Description.createSuiteDescription(cls.getName());
+			int max = Integer.getInteger("dynamicJUnit.maxDescribedCases", MAX_DESCRIBED_CASES);
+			// 分割しない場合は件数だけで判定できるため、上限を超えるDescriptionを生成しない。
+			if (testCases != null && (shard != null || testCases.size() <= max)) {
+				List<Description> list = new ArrayList<Description>(shard == null ? testCases.size() : 16);
+				for (int i = 0; i < testCases.size() && list != null; i++) {
+					TestCase<?, ?> testCase = testCases.get(i);
+					if (shard != null && !shard.accepts(i, testCase)) continue;
+					if (list.size() == max) list = null;
+					else list.add(getDescription(testCase.getName()));
+				}
+				if (list != null) {
+					for (Description child : list) description.addChild(child);
+					children = list;
+				}
+			}
+		}
+		return description;
+	}
+
+	/**
+	 * 次に実行するテストケースのDescriptionを返します。テストケースを実行する順番に呼び出します。<br />
+	 * テストクラスのDescriptionに含まれている場合は、生成済みのInstanceを返します。
+	 *
+	 * @param testCase 次に実行するTestCaseオブジェクト。
+	 * @return テストケースのDescriptionオブジェクト。
+	 */
+	private Description nextDescription(TestCase<?, ?> testCase) {
+		if (children != null && childCursor < children.size()) return children.get(childCursor++);
+		return getDescription(testCase.getName());
+	}
+
+	/**
+	 * 実行するテストケースのIteratorを返します。<br />
+	 * TestCaseGeneratorが{@link dynamicJUnit.StreamingTestCaseGenerator StreamingTestCaseGenerator}の場合は、
+	 * テストケースを逐次生成するIteratorを返します。
+	 * 分割して実行する場合は、このプロセスで実行するテストケースのみを返します。
+	 *
+	 * @return TestCaseオブジェクトのIterator。
+	 */
+	private Iterator<TestCase<?, ?>> testCaseIterator() {
+		Iterator<TestCase<?, ?>> it = (testCases != null) ? testCases.iterator() : ((StreamingTestCaseGenerator) generator).iterateTestCases();
+		return (shard == null) ? it : shard.filter(it);
 	}
 
 	/**
@@ -90,25 +254,497 @@ public class DynamicTestsRunner extends Runner {
 	 * {@link org.junit.runner.notification.RunNotifier RunNotifier}に渡されます。
 	 *
 	 * @param notifier テストの開始・終了・成功・失敗を通知するRunNotifierオブジェクト。
+	 * @param executor テストケースを実行するCaseExecutorオブジェクト。
 	 * @param testCase テストの名前・期待値・テストメソッドの引数を格納するTestCaseオブジェクト。
 	 */
-	private void invokeTest(RunNotifier notifier, TestCase<?, ?> testCase) {
-		Description des = getDescription(testCase.name);
-		watcher.starting(des);
-		notifier.fireTestStarted(des);
+	private void invokeTest(RunNotifier notifier, CaseExecutor executor, TestCase<?, ?> testCase) {
+		Description des = nextDescription(testCase);
+		long timeout = timeoutMillis();
+		if (timeout < 0 || isAborted()) {
+			fireSkipped(notifier, des, testCase, skipReason());
+			return;
+		}
+		fireStarted(notifier, des);
+		long start = System.nanoTime();
+		Throwable e = executor.execute(testCase, des, timeout);
+		long nanos = System.nanoTime() - start;
+		timings.record(testCase.getName(), nanos);
+		if (shard != null) shard.record(testCase, e, nanos);
+		fireResult(notifier, des, e);
+		recordResult(e);
+	}
+
+	/**
+	 * テストケースを複数のワーカースレッドに分配して実行します。<br />
+	 * TestCaseGeneratorのInstance(ブラウザのセッション)は{@link #sessions}件までを{@link SessionPool}で共有し、
+	 * ワーカースレッドはセッションの空きを待ってからテストケースを実行します。
+	 * 仮想スレッドを使用する場合はワーカースレッド数でスレッドを制限せず、実行待ちのテストケースごとに仮想スレッドを生成します。
+	 * 実行結果はテストケースのリストの順番で、このメソッドを呼び出したスレッドから通知されます。<br />
+	 * 実行待ちのテストケースはワーカースレッド数の{@value #WINDOW_PER_THREAD}倍までに制限されるため、
+	 * {@link dynamicJUnit.StreamingTestCaseGenerator StreamingTestCaseGenerator}のテストケースは必要な分だけ生成されます。
+	 *
+	 * @param notifier テストの開始・終了・成功・失敗を通知するRunNotifierオブジェクト。
+	 * @param it 実行するTestCaseオブジェクトのIterator。
+	 */
+	private void invokeTestsInParallel(RunNotifier notifier, Iterator<TestCase<?, ?>> it) {
+		final SessionPool pool = new SessionPool(sessions);
+		// 仮想スレッドはテストケースごとに生成し、同時に実行するテストケースの数はSessionPoolのセマフォだけで制限する。
+		ExecutorService executor = (virtualThreads && VirtualThreads.isAvailable())
+			? Executors.newCachedThreadPool(VirtualThreads.factory(cls.getSimpleName()))
+			: Executors.newFixedThreadPool(threads, VirtualThreads.factory(cls.getSimpleName(), virtualThreads));
+		Deque<PendingTestCase> pending = new ArrayDeque<PendingTestCase>();
+		try {
+			while (it.hasNext() || !pending.isEmpty()) {
+				while (it.hasNext() && pending.size() < threads * WINDOW_PER_THREAD) {
+					final TestCase<?, ?> testCase = it.next();
+					final Description des = nextDescription(testCase);
+					final WorkerExecution execution = new WorkerExecution();
+					pending.add(new PendingTestCase(testCase, des, execution, executor.submit(new Callable<Throwable>() {
+						@Override
+						public Throwable call() throws InterruptedException {
+							if (timeoutMillis() < 0 || isAborted()) return SKIPPED;
+							CaseExecutor worker = pool.acquire();
+							try {
+								// セッションの空きを待つ間に期限を過ぎた場合もスキップする。
+								long timeout = timeoutMillis();
+								if (timeout < 0 || isAborted()) return SKIPPED;
+								execution.start();
+								try {
+									return worker.execute(testCase, des, timeout);
+								} finally {
+									execution.end();
+								}
+							} finally {
+								pool.release(worker);
+							}
+						}
+					})));
+				}
+				PendingTestCase head = pending.poll();
+				Description des = head.description;
+				Throwable e = head.await();
+				if (e == SKIPPED) {
+					fireSkipped(notifier, des, head.testCase, skipReason());
+					continue;
+				}
+				head.execution.report(watcher, timings, des, head.testCase.getName());
+				if (shard != null) shard.record(head.testCase, e, head.execution.nanos());
+				fireStarted(notifier, des);
+				fireResult(notifier, des, e);
+				recordResult(e);
+			}
+		} finally {
+			executor.shutdownNow();
+			try {
+				executor.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			pool.close();
+		}
+	}
+
+	/**
+	 * 次に実行するテストケースの実行時間の上限を返します。<br />
+	 * テストケース1件の上限とテストクラス全体の残り時間の短い方になります。
+	 *
+	 * @return 実行時間の上限(ミリ秒)。上限が無い場合は0。テストクラス全体の期限を過ぎている場合は-1。
+	 */
+	private long timeoutMillis() {
+		long deadline = suiteDeadlineNanos;
+		if (deadline == 0) return caseTimeoutMillis;
+		long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+		if (remaining <= 0) return -1;
+		return (caseTimeoutMillis > 0) ? Math.min(caseTimeoutMillis, remaining) : remaining;
+	}
+
+	/**
+	 * TestCaseGeneratorにTestCaseオブジェクトを渡して実行します。<br />
+	 * TestCaseGeneratorが{@link dynamicJUnit.WebDriverProvider WebDriverProvider}を実装している場合は、
+	 * 失敗時にスクリーンショットとページソースを保存します。
+	 *
+	 * @param g テストを実行するTestCaseGeneratorオブジェクト。
+	 * @param testCase テストの名前・期待値・テストメソッドの引数を格納するTestCaseオブジェクト。
+	 * @param des テストケースのDescriptionオブジェクト。
+	 * @return テストが失敗した場合は発生した例外。成功した場合はnull。
+	 */
+	private Throwable execute(TestCaseGenerator g, TestCase<?, ?> testCase, Description des) {
+		// WebDriverのコマンドを計測している場合は、実行したスレッドのコマンドをテストケースの内訳に集計する。
+		WebDriverMetrics metrics = WebDriverMetrics.getInstance();
+		boolean measure = metrics.isEnabled();
+		if (measure) metrics.startTest(des.getDisplayName());
+		try {
+			Throwable e = invoke(g, testCase);
+			if (e != null && g instanceof WebDriverProvider) {
+				WebDriver d = ((WebDriverProvider) g).getDriver();
+				if (d != null) watcher.captureFailure(d, e, des);
+			}
+			return e;
+		} finally {
+			if (measure) metrics.detach();
+		}
+	}
+
+	private static Throwable invoke(TestCaseGenerator g, TestCase<?, ?> testCase) {
 		try{
-			generator.invokeTestCase(testCase);
-			watcher.succeeded(des);
+			g.invokeTestCase(testCase);
+			return null;
 		} catch (AssertionError e) {
-			notifier.fireTestFailure(new Failure(des, e));
-			watcher.failed(e, des);
+			return e;
 		} catch (Throwable e) {
 			e.printStackTrace();
-			notifier.fireTestFailure(new Failure(des, e));
-			watcher.failed(e, des);
+			return e;
+		}
+	}
+
+	/**
+	 * TestCaseGeneratorの{@link dynamicJUnit.TestCaseGenerator#setUp setUp}メソッドを実行し、実行時間を記録します。
+	 */
+	private void setUp(TestCaseGenerator g) {
+		long start = System.nanoTime();
+		g.setUp();
+		timings.recordSetUp(System.nanoTime() - start);
+	}
+
+	/**
+	 * TestCaseGeneratorの{@link dynamicJUnit.TestCaseGenerator#tearDown tearDown}メソッドを実行し、実行時間を記録します。
+	 */
+	private void tearDown(TestCaseGenerator g) {
+		long start = System.nanoTime();
+		g.tearDown();
+		timings.recordTearDown(System.nanoTime() - start);
+	}
+
+	/**
+	 * テストクラスの実行を打ち切る条件を満たしたかどうかを返します。
+	 */
+	private boolean isAborted() { return abort != null && abort.isAborted(); }
+
+	/**
+	 * テストケースをスキップする理由を返します。
+	 */
+	private String skipReason() { return isAborted() ? abort.getReason() : SUITE_DEADLINE_EXCEEDED; }
+
+	/**
+	 * テストケースの実行結果を打ち切りの条件の判定に渡します。条件を満たした時点で理由をログに出力します。
+	 *
+	 * @param e テストが失敗した場合は発生した例外。成功した場合はnull。
+	 */
+	private void recordResult(Throwable e) {
+		if (abort == null || abort.isAborted()) return;
+		if (abort.record(e)) watcher.log("Aborted", cls.getName() + "\n" + abort.getReason());
+	}
+
+	/**
+	 * テストケースをスキップしたことを通知します。
+	 *
+	 * @param reason スキップした理由。
+	 */
+	private void fireSkipped(RunNotifier notifier, Description des, TestCase<?, ?> testCase, String reason) {
+		watcher.skipped(des, reason);
+		notifier.fireTestIgnored(des);
+		if (shard != null) shard.recordSkipped(testCase);
+	}
+
+	/**
+	 * テストケースの開始を通知します。
+	 */
+	private void fireStarted(RunNotifier notifier, Description des) {
+		watcher.starting(des);
+		notifier.fireTestStarted(des);
+	}
+
+	/**
+	 * テストケースの実行結果と終了を通知します。
+	 *
+	 * @param e テストが失敗した場合は発生した例外。成功した場合はnull。
+	 */
+	private void fireResult(RunNotifier notifier, Description des, Throwable e) {
+		try{
+			if (e == null) {
+				watcher.succeeded(des);
+			} else {
+				notifier.fireTestFailure(new Failure(des, e));
+				watcher.failed(e, des);
+			}
 		} finally {
 			notifier.fireTestFinished(des);
 			watcher.finished(des);
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * TestCaseGeneratorの実装クラスの新しいInstanceを生成します。
+	 */
+	private TestCaseGenerator newGenerator() {
+		try {
+			return (TestCaseGenerator)cls.newInstance();
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * ワーカースレッド数を決定します。<br />
+	 * システムプロパティ dynamicJUnit.threads 、{@link dynamicJUnit.Parallel Parallel}アノテーションの順に参照します。
+	 *
+	 * @param klass TestCaseGeneratorの実装クラス。
+	 * @return ワーカースレッド数。
+	 */
+	private static int resolveThreads(Class<?> klass) {
+		Parallel parallel = klass.getAnnotation(Parallel.class);
+		int n = Integer.getInteger("dynamicJUnit.threads", parallel == null ? 1 : parallel.threads());
+		return n > 0 ? n : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * 1ワーカースレッドあたりの実行待ちテストケース数の上限です。
+	 */
+	private static final int WINDOW_PER_THREAD = 4;
+
+	/**
+	 * テストクラスのDescriptionに子要素として含めるテストケースの件数の既定値です。
+	 */
+	private static final int MAX_DESCRIBED_CASES = 100000;
+
+	/**
+	 * テストクラス全体の期限を過ぎたためにスキップしたテストケースのスキップ理由です。
+	 */
+	private static final String SUITE_DEADLINE_EXCEEDED = "suite deadline exceeded";
+
+	/**
+	 * ワーカースレッドでテストケースを実行せずにスキップしたことを表す値です。
+	 */
+	private static final Throwable SKIPPED = new Throwable("skipped");
+
+	/**
+	 * TestCaseGeneratorのInstanceを1つ保持し、テストケースを実行時間の上限付きで実行します。<br />
+	 * 上限が設定されている場合は専用のスレッドでテストケースを実行し、上限を超えた場合はスレッドに割り込みます。
+	 * 上限を超えたTestCaseGeneratorのInstanceは別のスレッドでtearDownメソッドを実行して終了し、
+	 * 次のテストケースの実行時に新しいInstanceに置き換えます。WebDriverを使用している場合は、tearDownメソッドでブラウザも終了されます。
+	 * 新しいInstanceのsetUpメソッドは次のテストケースと同じ実行時間の上限の中で実行します。
+	 */
+	private final class CaseExecutor {
+		/** テストケースを実行するTestCaseGeneratorのInstanceです。上限を超えて破棄した後、次のテストケースを実行するまではnullです。 */
+		private TestCaseGenerator generator;
+		private ExecutorService executor;
+
+		CaseExecutor(TestCaseGenerator generator) { this.generator = generator; }
+
+		/**
+		 * テストケースを実行します。
+		 *
+		 * @param testCase テストの名前・期待値・テストメソッドの引数を格納するTestCaseオブジェクト。
+		 * @param des テストケースのDescriptionオブジェクト。
+		 * @param timeoutMillis 実行時間の上限(ミリ秒)。0の場合は上限を設けずに呼び出し元のスレッドで実行します。
+		 * @return テストが失敗した場合は発生した例外。成功した場合はnull。
+		 */
+		Throwable execute(final TestCase<?, ?> testCase, final Description des, long timeoutMillis) {
+			if (timeoutMillis <= 0) {
+				if (generator == null) generator = prepare(new AtomicReference<TestCaseGenerator>());
+				return DynamicTestsRunner.this.execute(generator, testCase, des);
+			}
+			if (executor == null) executor = Executors.newSingleThreadExecutor(VirtualThreads.factory(cls.getSimpleName() + "-case", virtualThreads));
+			// setUpメソッドの途中で上限を超えた場合も破棄できるように、生成したInstanceはsetUpメソッドの実行前に格納する。
+			final AtomicReference<TestCaseGenerator> current = new AtomicReference<TestCaseGenerator>(generator);
+			final AtomicReference<Thread> runner = new AtomicReference<Thread>();
+			Future<Throwable> result = executor.submit(new Callable<Throwable>() {
+				@Override
+				public Throwable call() {
+					runner.set(Thread.currentThread());
+					try {
+						TestCaseGenerator g = current.get();
+						if (g == null) g = prepare(current);
+						return DynamicTestsRunner.this.execute(g, testCase, des);
+					} finally {
+						runner.set(null);
+					}
+				}
+			});
+			try {
+				return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (ExecutionException e) {
+				return e.getCause();
+			} catch (InterruptedException e) {
+				result.cancel(true);
+				generator = current.get();
+				Thread.currentThread().interrupt();
+				return e;
+			} catch (TimeoutException e) {
+				TestCaseTimeoutException timeout = new TestCaseTimeoutException(testCase.getName(), timeoutMillis);
+				Thread t = runner.get();
+				if (t != null) timeout.setStackTrace(t.getStackTrace());
+				result.cancel(true);
+				generator = current.get();
+				recycle(timeout, des);
+				return timeout;
+			} finally {
+				if (result.isDone() && !result.isCancelled()) generator = current.get();
+			}
+		}
+
+		/**
+		 * TestCaseGeneratorの新しいInstanceを生成してsetUpメソッドを実行します。<br />
+		 * 生成したInstanceはsetUpメソッドの実行前にholderに格納し、setUpメソッドが失敗した場合はholderを空に戻します。
+		 *
+		 * @param holder 生成したInstanceを格納するAtomicReferenceオブジェクト。
+		 * @return setUpメソッドを実行したTestCaseGeneratorオブジェクト。
+		 */
+		private TestCaseGenerator prepare(AtomicReference<TestCaseGenerator> holder) {
+			TestCaseGenerator g = newGenerator();
+			holder.set(g);
+			boolean prepared = false;
+			try {
+				setUp(g);
+				prepared = true;
+			} finally {
+				// AssertionErrorなどのErrorで失敗した場合も、setUpメソッドが完了していないInstanceを使用しない。
+				if (!prepared) holder.set(null);
+			}
+			return g;
+		}
+
+		/**
+		 * 実行時間の上限を超えたTestCaseGeneratorのInstanceとスレッドを破棄します。<br />
+		 * 応答しないブラウザの終了を待たないように、破棄するInstanceのスクリーンショットの保存とtearDownメソッドは別のスレッドで実行します。
+		 * 新しいInstanceは次のテストケースの実行時に、そのテストケースの実行時間の上限の中で生成します。
+		 */
+		private void recycle(final Throwable timeout, final Description des) {
+			executor.shutdownNow();
+			executor = null;
+			final TestCaseGenerator hung = generator;
+			generator = null;
+			if (hung == null) return;
+			new DaemonThreadFactory(cls.getSimpleName() + "-recycle").newThread(new Runnable() {
+				@Override
+				public void run() {
+					if (hung instanceof WebDriverProvider) {
+						WebDriver d = ((WebDriverProvider) hung).getDriver();
+						if (d != null) watcher.captureFailure(d, timeout, des);
+					}
+					tearDown(hung);
+				}
+			}).start();
+		}
+
+		/**
+		 * スレッドを終了し、TestCaseGeneratorのtearDownメソッドを実行します。
+		 */
+		void close() {
+			if (executor != null) executor.shutdownNow();
+			if (generator != null) tearDown(generator);
+		}
+	}
+
+	/**
+	 * 同時に使用するCaseExecutor(ブラウザのセッション)の数をセマフォで制限するプールです。<br />
+	 * CaseExecutorは最初に必要になった時に生成し、返却されたものを再利用します。
+	 * ワーカースレッドはセッションの空きを待つ間ブロックされますが、仮想スレッドの場合はOSのスレッドを占有しません。
+	 */
+	private final class SessionPool {
+		private final Semaphore permits;
+		private final LinkedBlockingDeque<CaseExecutor> idle = new LinkedBlockingDeque<CaseExecutor>();
+		private final List<CaseExecutor> all = Collections.synchronizedList(new ArrayList<CaseExecutor>());
+
+		SessionPool(int size) { permits = new Semaphore(size, true); }
+
+		/**
+		 * CaseExecutorを借ります。全てのセッションが使用中の場合は返却を待ちます。
+		 */
+		CaseExecutor acquire() throws InterruptedException {
+			permits.acquire();
+			CaseExecutor executor = idle.pollFirst();
+			if (executor != null) return executor;
+			try {
+				TestCaseGenerator g = newGenerator();
+				setUp(g);
+				executor = new CaseExecutor(g);
+				all.add(executor);
+				return executor;
+			} catch (RuntimeException e) {
+				permits.release();
+				throw e;
+			}
+		}
+
+		/**
+		 * 借りたCaseExecutorを返却します。
+		 */
+		void release(CaseExecutor executor) {
+			idle.offerFirst(executor);
+			permits.release();
+		}
+
+		/**
+		 * 全てのCaseExecutorを終了します。
+		 */
+		void close() {
+			synchronized (all) {
+				for (CaseExecutor executor : all) executor.close();
+			}
+		}
+	}
+
+	/**
+	 * 実行中のテストケースとその結果を格納します。
+	 */
+	private static final class PendingTestCase {
+		final TestCase<?, ?> testCase;
+		final Description description;
+		final WorkerExecution execution;
+		final Future<Throwable> result;
+
+		PendingTestCase(TestCase<?, ?> testCase, Description description, WorkerExecution execution, Future<Throwable> result) {
+			this.testCase = testCase;
+			this.description = description;
+			this.execution = execution;
+			this.result = result;
+		}
+
+		/**
+		 * テストケースの実行終了を待ちます。
+		 *
+		 * @return テストが失敗した場合は発生した例外。成功した場合はnull。
+		 */
+		Throwable await() {
+			try {
+				return result.get();
+			} catch (ExecutionException e) {
+				return e.getCause();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return e;
+			}
+		}
+	}
+
+	/**
+	 * ワーカースレッドで計測したテストケースの実行時間を格納します。
+	 */
+	private static final class WorkerExecution {
+		volatile long startNanos = -1;
+		volatile long endNanos = -1;
+		volatile String threadName;
+
+		void start() {
+			threadName = Thread.currentThread().getName();
+			startNanos = System.nanoTime();
+		}
+
+		void end() { endNanos = System.nanoTime(); }
+
+		/**
+		 * 実行時間(ナノ秒)を返します。実行されなかった場合は-1です。
+		 */
+		long nanos() { return (startNanos < 0 || endNanos < 0) ? -1 : endNanos - startNanos; }
+
+		/**
+		 * 計測した実行時間をMyTestWatcherとTestTimingsに渡します。実行されなかった場合は何もしません。
+		 */
+		void report(MyTestWatcher watcher, TestTimings timings, Description des, String name) {
+			if (startNanos < 0) return;
+			watcher.executed(des, startNanos, endNanos, threadName);
+			if (endNanos >= 0) timings.record(name, endNanos - startNanos);
+		}
+	}
+}
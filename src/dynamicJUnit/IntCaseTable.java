@@ -0,0 +1,154 @@
+package dynamicJUnit;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * int型の引数を持つ大量のテストケースを列ごとの配列で保持するリストです。<br />
+ * テストケースの引数はint型の配列に格納し、期待値は{@link IntCaseTable.Expectation Expectation}で引数から算出するか、
+ * 期待値の配列に格納します。{@link #get get}メソッドの呼び出し時に{@link dynamicJUnit.IntTestCase IntTestCase}を生成するため、
+ * テストケース1件あたりのメモリ使用量は引数と期待値の参照の分だけになります。 * 生成したIntTestCaseの name フィールドと param フィールドはnullのため、
+ * テストクラスでは{@link dynamicJUnit.TestCase#getName getName}メソッドと{@link dynamicJUnit.TestCase#getParam getParam}メソッドを使用します。<br />
+ * {@link dynamicJUnit.TestCaseGenerator#generateTestCases generateTestCases}メソッドの戻り値として使用します。
+ *
+ * <pre>
+ * public List&lt;TestCase&lt;?, ?&gt;&gt; generateTestCases() {
+ *     return IntCaseTable.range("検証値: [%2$s] の時、実測値が[%1$s] であること。", 1, 1000000, new IntCaseTable.Expectation&lt;Object&gt;() {
+ *         public Object of(int param) { return getFizzBuzz(param); }
+ *     });
+ * }
+ * </pre>
+ *
+ * T1 は期待値のデータ型を格納します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class IntCaseTable<T1> extends AbstractList<TestCase<?, ?>> implements RandomAccess {
+	/**
+	 * テストメソッドの引数から期待値を算出するインターフェイスです。
+	 *
+	 * @param <T1> 期待値のデータ型。
+	 */
+	public interface Expectation<T1> {
+		/**
+		 * @param param テストメソッドの引数。
+		 * @return 期待値。
+		 */
+		T1 of(int param);
+	}
+
+	private final String format;
+	private final Expectation<T1> expectation;
+	private int[] params = new int[16];
+	/** 期待値の配列です。期待値をExpectationで算出する場合はnull。 */
+	private Object[] expected;
+	private int size;
+
+	/**
+	 * 期待値を{@link #addCase(int, Object) addCase}メソッドで格納するIntCaseTableを生成します。
+	 *
+	 * @param format テスト名の書式文字列。{@link java.lang.String#format String.format}メソッドにexpectedの値・paramの値と共に渡される。
+	 */
+	public IntCaseTable(String format) {
+		this.format = format;
+		this.expectation = null;
+		this.expected = new Object[16];
+	}
+
+	/**
+	 * 期待値を引数から算出するIntCaseTableを生成します。テストケースは{@link #addCase(int) addCase}メソッドで追加します。
+	 *
+	 * @param format テスト名の書式文字列。{@link java.lang.String#format String.format}メソッドにexpectedの値・paramの値と共に渡される。
+	 * @param expectation 引数から期待値を算出するExpectationオブジェクト。
+	 */
+	public IntCaseTable(String format, Expectation<T1> expectation) {
+		if (expectation == null) throw new IllegalArgumentException("expectation is null");
+		this.format = format;
+		this.expectation = expectation;
+	}
+
+	/**
+	 * from から to までの連続した引数を持つIntCaseTableを生成するファクトリメソッドです。
+	 *
+	 * @param format テスト名の書式文字列。
+	 * @param from 最初の引数。
+	 * @param to 最後の引数。この値を含みます。
+	 * @param expectation 引数から期待値を算出するExpectationオブジェクト。
+	 * @return IntCaseTable型オブジェクト。
+	 */
+	public static <T1> IntCaseTable<T1> range(String format, int from, int to, Expectation<T1> expectation) {
+		IntCaseTable<T1> table = new IntCaseTable<T1>(format, expectation);
+		table.ensureCapacity((int) Math.max(0, Math.min(Integer.MAX_VALUE - 8, (long) to - from + 1)));
+		for (long i = from; i <= to; i++) table.addCase((int) i);
+		return table;
+	}
+
+	/**
+	 * 期待値を引数から算出するテストケースを追加します。
+	 *
+	 * @param param テストメソッドの引数。
+	 * @return このIntCaseTable。
+	 */
+	public IntCaseTable<T1> addCase(int param) {
+		if (expectation == null) throw new IllegalStateException("expected value is required");
+		ensureCapacity(size + 1);
+		params[size++] = param;
+		modCount++;
+		return this;
+	}
+
+	/**
+	 * 期待値を指定してテストケースを追加します。
+	 *
+	 * @param param テストメソッドの引数。
+	 * @param expected 期待値。
+	 * @return このIntCaseTable。
+	 */
+	public IntCaseTable<T1> addCase(int param, T1 expected) {
+		if (this.expected == null) throw new IllegalStateException("expected values are computed by " + expectation);
+		ensureCapacity(size + 1);
+		this.expected[size] = expected;
+		params[size++] = param;
+		modCount++;
+		return this;
+	}
+
+	/**
+	 * index番目のテストケースを生成して返します。呼び出す度に新しいInstanceを生成します。
+	 *
+	 * @param index テストケースの順番。
+	 * @return IntTestCase型オブジェクト。
+	 */
+	@Override
+	public IntTestCase<T1> get(int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return new IntTestCase<T1>(format, expectedAt(index), params[index]);
+	}
+
+	/**
+	 * index番目のテストケースの引数を返します。
+	 *
+	 * @param index テストケースの順番。
+	 * @return テストメソッドの引数。
+	 */
+	public int paramAt(int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return params[index];
+	}
+
+	@Override
+	public int size() { return size; }
+
+	@SuppressWarnings("unchecked")
+	private T1 expectedAt(int index) {
+		return (expectation != null) ? expectation.of(params[index]) : (T1) expected[index];
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= params.length) return;
+		int newCapacity = Math.max(capacity, params.length + (params.length >> 1));
+		params = Arrays.copyOf(params, newCapacity);
+		if (expected != null) expected = Arrays.copyOf(expected, newCapacity);
+	}
+}
@@ -0,0 +1,38 @@
+package dynamicJUnit;
+
+/**
+ * int型の引数を持つテストケース1件単位でのデータ格納用のクラスです。<br />
+ * 引数をプリミティブ型のまま保持し、テスト名は{@link #getName getName}メソッドの呼び出し時に生成するため、
+ * {@link dynamicJUnit.TestCase TestCase}よりも1件あたりのメモリ使用量が少なくなります。<br />
+ * 継承した param フィールドはnullです。引数は{@link #intParam intParam}メソッド、
+ * または{@link #getParam getParam}メソッド(呼び出しごとにInteger型に変換します)で取得します。<br />
+ * T1 は期待値のデータ型を格納します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class IntTestCase<T1> extends PrimitiveTestCase<T1, Integer> {
+	private final int value;
+
+	/**
+	 * IntTestCaseクラスのコンストラクタです。
+	 * 引数formatに書式指示子を渡すことでexpectedの値・paramの値をテスト名に含めることができます。
+	 *
+	 * @param format テスト名の書式文字列。{@link java.lang.String#format String.format}メソッドにexpectedの値・paramの値と共に渡される。
+	 * @param expected 期待値。
+	 * @param param テストメソッドの引数。
+	 */
+	public IntTestCase(String format, T1 expected, int param) {
+		super(format, expected);
+		this.value = param;
+	}
+
+	/**
+	 * テストメソッドの引数を返します。
+	 *
+	 * @return テストメソッドの引数。
+	 */
+	public int intParam() { return value; }
+
+	@Override
+	public Integer getParam() { return value; }
+}
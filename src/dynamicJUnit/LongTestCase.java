@@ -0,0 +1,38 @@
+package dynamicJUnit;
+
+/**
+ * long型の引数を持つテストケース1件単位でのデータ格納用のクラスです。<br />
+ * 引数をプリミティブ型のまま保持し、テスト名は{@link #getName getName}メソッドの呼び出し時に生成するため、
+ * {@link dynamicJUnit.TestCase TestCase}よりも1件あたりのメモリ使用量が少なくなります。<br />
+ * 継承した param フィールドはnullです。引数は{@link #longParam longParam}メソッド、
+ * または{@link #getParam getParam}メソッド(呼び出しごとにLong型に変換します)で取得します。<br />
+ * T1 は期待値のデータ型を格納します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class LongTestCase<T1> extends PrimitiveTestCase<T1, Long> {
+	private final long value;
+
+	/**
+	 * LongTestCaseクラスのコンストラクタです。
+	 * 引数formatに書式指示子を渡すことでexpectedの値・paramの値をテスト名に含めることができます。
+	 *
+	 * @param format テスト名の書式文字列。{@link java.lang.String#format String.format}メソッドにexpectedの値・paramの値と共に渡される。
+	 * @param expected 期待値。
+	 * @param param テストメソッドの引数。
+	 */
+	public LongTestCase(String format, T1 expected, long param) {
+		super(format, expected);
+		this.value = param;
+	}
+
+	/**
+	 * テストメソッドの引数を返します。
+	 *
+	 * @return テストメソッドの引数。
+	 */
+	public long longParam() { return value; }
+
+	@Override
+	public Long getParam() { return value; }
+}
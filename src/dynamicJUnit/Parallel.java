@@ -0,0 +1,45 @@
+package dynamicJUnit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link dynamicJUnit.DynamicTestsRunner DynamicTestsRunner}でテストケースを並列に実行するための設定です。<br />
+ * TestCaseGeneratorの実装クラスに付与すると、テストケースが複数のワーカースレッドに分配されます。<br />
+ * セッションごとに実装クラスの新しいInstanceが生成され、
+ * {@link dynamicJUnit.TestCaseGenerator#setUp setUp}・{@link dynamicJUnit.TestCaseGenerator#tearDown tearDown}
+ * もセッションごとに1回づつ実行されます。<br />
+ * テスト結果はテストケースのリストの順番で通知されます。<br />
+ * ブラウザのセッション数をワーカースレッド数より少なくする場合は sessions を指定します。
+ * ワーカースレッドはセッションの空きを待ってから、空いているInstanceでテストケースを実行します。<br />
+ * virtualThreads をtrueにすると、ワーカースレッドに仮想スレッドを使用します。
+ * WebDriverのHTTP通信を待つ間OSのスレッドを占有しないため、多数のセッションを少ないOSのスレッドで実行できます。
+ * 仮想スレッドはテストケースごとに生成するため、同時に実行するテストケースの数は sessions だけで制限され、
+ * threads は実行待ちのテストケースを先読みする件数(threadsの4倍)に使用されます。
+ * 仮想スレッドを使用できないJavaのバージョンではデーモンスレッドを使用します。<br />
+ * システムプロパティ dynamicJUnit.threads, dynamicJUnit.sessions, dynamicJUnit.virtualThreads を指定した場合は、その値が優先されます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Parallel {
+	/**
+	 * ワーカースレッド数。0以下の場合は使用可能なプロセッサ数になります。
+	 */
+	int threads() default 0;
+
+	/**
+	 * 同時に使用するTestCaseGeneratorのInstance(ブラウザのセッション)の数。0以下の場合、またはワーカースレッド数より多い場合はワーカースレッド数になります。
+	 */
+	int sessions() default 0;
+
+	/**
+	 * trueの場合、ワーカースレッドに仮想スレッドを使用します。テストケースごとに仮想スレッドを生成し、スレッド数を制限しません。
+	 */
+	boolean virtualThreads() default false;
+}
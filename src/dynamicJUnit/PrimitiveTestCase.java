@@ -0,0 +1,45 @@
+package dynamicJUnit;
+
+/**
+ * プリミティブ型の引数を持つテストケースの基底クラスです。<br />
+ * テスト名の書式文字列のみを保持し、テスト名は{@link #getName getName}メソッドの最初の呼び出し時に一度だけ生成します。
+ * 継承した name フィールドと param フィールドはnullのため、TestCaseのフィールドを直接参照するテストクラスでは使用できません。引数はサブクラスの{@link #getParam getParam}メソッドで取得します。<br />
+ * T1 は期待値のデータ型を格納します。<br />
+ * T2 はテストメソッドの引数のラッパー型を格納します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public abstract class PrimitiveTestCase<T1, T2> extends TestCase<T1, T2> {
+	private final String format;
+	/** 生成したテスト名です。Stringは不変のため、複数のスレッドから同時に生成されても同じ値になります。 */
+	private String lazyName;
+
+	/**
+	 * @param format テスト名の書式文字列。{@link java.lang.String#format String.format}メソッドにexpectedの値・paramの値と共に渡される。
+	 * @param expected 期待値。
+	 */
+	protected PrimitiveTestCase(String format, T1 expected) {
+		super(expected, null);
+		this.format = format;
+	}
+
+	/**
+	 * テストメソッドの引数をラッパー型に変換して返します。
+	 *
+	 * @return テストメソッドの引数。
+	 */
+	@Override
+	public abstract T2 getParam();
+
+	/**
+	 * テスト名を返します。テスト名は最初の呼び出し時に生成し、以降は生成したテスト名を返します。
+	 *
+	 * @return テスト名。
+	 */
+	@Override
+	public String getName() {
+		String n = lazyName;
+		if (n == null) lazyName = n = String.format(format, expected, getParam());
+		return n;
+	}
+}
@@ -0,0 +1,196 @@
+package dynamicJUnit;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+import util.base.JsonLine;
+import util.base.LogWriter;
+import util.base.ProjectInfo;
+
+/**
+ * テストケースを複数のプロセスに分割して実行するための設定と、分割した実行結果の出力を行うクラスです。<br />
+ * 各プロセスはテストケースの一部(シャード)だけを実行し、実行結果をシャードごとのファイルに出力します。
+ * 出力したファイルは{@link dynamicJUnit.ShardReport ShardReport}で1つの結果にまとめます。<br />
+ * 次のシステムプロパティで設定します。
+ * <dl>
+ * <dt>dynamicJUnit.shard.count</dt><dd>シャード数。2以上の場合に分割して実行します。</dd>
+ * <dt>dynamicJUnit.shard.index</dt><dd>このプロセスが実行するシャードの番号。0からshard.count-1までの値です。</dd>
+ * <dt>dynamicJUnit.shard.mode</dt>
+ * <dd>index(既定値)の場合はテストケースの順番をシャード数で割った余り、
+ * hashの場合はテストケース名のハッシュ値をシャード数で割った余りでシャードを決定します。
+ * hashの場合はテストケースの追加・削除で他のテストケースのシャードが変わりません。</dd>
+ * <dt>dynamicJUnit.shard.output</dt><dd>実行結果の出力先ディレクトリ。既定値はプロジェクトの logs/shards です。</dd>
+ * </dl>
+ * 例えば同じマシンで4プロセスに分割する場合は、dynamicJUnit.shard.index に0から3を指定した4つのJVMを起動します。
+ *
+ * <pre>
+ * java -DdynamicJUnit.shard.count=4 -DdynamicJUnit.shard.index=0 org.junit.runner.JUnitCore dynamicJUnit.samples.FizzBuzzTest
+ * </pre>
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class Shard {
+	/**
+	 * シャードの決定方法の列挙型定数です。
+	 */
+	public static enum Mode {INDEX, HASH}
+
+	/** このプロセスが実行するシャードの番号です。 */
+	public final int index;
+	/** シャード数です。 */
+	public final int count;
+	/** シャードの決定方法です。 */
+	public final Mode mode;
+	/** 実行結果の出力先ディレクトリです。 */
+	public final File outputDir;
+
+	/**
+	 * 実行するテストケースの順番です。テストケースを取り出した順に追加し、実行結果の出力時に取り出します。
+	 * 実行結果はテストケースを取り出した順に通知されるため、先頭が出力するテストケースの順番になります。
+	 */
+	private final Deque<Integer> ordinals = new ArrayDeque<Integer>();
+	private File file;
+	private int cases;
+	private int failures;
+
+	/**
+	 * @param index このプロセスが実行するシャードの番号。
+	 * @param count シャード数。
+	 * @param mode シャードの決定方法。
+	 * @param outputDir 実行結果の出力先ディレクトリ。
+	 */
+	public Shard(int index, int count, Mode mode, File outputDir) {
+		if (count < 1 || index < 0 || index >= count) {
+			throw new IllegalArgumentException("shard index " + index + " is out of range for " + count + " shards");
+		}
+		this.index = index;
+		this.count = count;
+		this.mode = mode;
+		this.outputDir = outputDir;
+	}
+
+	/**
+	 * システムプロパティからShardを生成します。
+	 *
+	 * @return Shard型オブジェクト。dynamicJUnit.shard.count が指定されていない場合、または1以下の場合はnull。
+	 */
+	public static Shard fromSystemProperties() {
+		int count = Integer.getInteger("dynamicJUnit.shard.count", 1);
+		if (count <= 1) return null;
+		return new Shard(
+			Integer.getInteger("dynamicJUnit.shard.index", 0),
+			count,
+			Mode.valueOf(System.getProperty("dynamicJUnit.shard.mode", "index").toUpperCase()),
+			new File(System.getProperty("dynamicJUnit.shard.output", ProjectInfo.absolutePath + "/logs/shards/"))
+		);
+	}
+
+	/**
+	 * テストケースがこのシャードで実行するものかどうかを判定します。
+	 *
+	 * @param ordinal テストケースの順番。0から始まります。
+	 * @param testCase TestCaseオブジェクト。
+	 * @return このシャードで実行する場合はtrue。
+	 */
+	public boolean accepts(int ordinal, TestCase<?, ?> testCase) {
+		int key = (mode == Mode.HASH) ? testCase.getName().hashCode() : ordinal;
+		return (key & Integer.MAX_VALUE) % count == index;
+	}
+
+	/**
+	 * このシャードで実行するテストケースだけを返すIteratorを返します。
+	 *
+	 * @param it 全てのテストケースのIterator。
+	 * @return このシャードで実行するテストケースのIterator。
+	 */
+	public Iterator<TestCase<?, ?>> filter(final Iterator<TestCase<?, ?>> it) {
+		return new TestCaseIterator() {
+			private int ordinal = -1;
+			@Override
+			protected TestCase<?, ?> computeNext() {
+				while (it.hasNext()) {
+					TestCase<?, ?> testCase = it.next();
+					ordinal++;
+					if (accepts(ordinal, testCase)) {
+						ordinals.add(ordinal);
+						return testCase;
+					}
+				}
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * テストクラスの実行開始時に呼び出します。前回の実行結果のファイルを削除します。<br />
+	 * 同じJVMで前回の実行結果をLogWriterが開いている場合があるため、削除はLogWriterの書き込みスレッドで行います。
+	 *
+	 * @param cls テストクラス。
+	 */
+	public void begin(Class<?> cls) {
+		file = new File(outputDir, fileName(cls.getName(), index, count));
+		LogWriter.getInstance().delete(outputDir, file.getName());
+		ordinals.clear();
+		cases = 0;
+		failures = 0;
+	}
+
+	/**
+	 * テストケース1件の実行結果を出力します。テストケースを取り出した順に呼び出します。
+	 *
+	 * @param testCase TestCaseオブジェクト。
+	 * @param e テストが失敗した場合は発生した例外。成功した場合はnull。
+	 * @param nanos 実行時間(ナノ秒)。実行されなかった場合は-1。
+	 */
+	public void record(TestCase<?, ?> testCase, Throwable e, long nanos) {
+		if (e != null) failures++;
+		JsonLine json = caseLine(testCase, e == null ? "passed" : "failed", nanos);
+		if (e != null) json.put("failure", e.getClass().getName()).put("message", e.getMessage());
+		write(json);
+	}
+
+	/**
+	 * テストケース1件をスキップしたことを出力します。テストケースを取り出した順に呼び出します。
+	 *
+	 * @param testCase TestCaseオブジェクト。
+	 */
+	public void recordSkipped(TestCase<?, ?> testCase) { write(caseLine(testCase, "skipped", -1)); }
+
+	private JsonLine caseLine(TestCase<?, ?> testCase, String status, long nanos) {
+		Integer ordinal = ordinals.poll();
+		cases++;
+		return line("case")
+			.put("ordinal", ordinal == null ? -1 : ordinal)
+			.put("name", testCase.getName())
+			.put("status", status)
+			.put("durationNanos", nanos);
+	}
+
+	/**
+	 * テストクラスの実行終了時に呼び出します。シャードの実行が完了したことを出力し、ファイルに書き出します。
+	 */
+	public void end() {
+		write(line("end").put("cases", cases).put("failures", failures));
+		LogWriter.getInstance().flush();
+	}
+
+	/**
+	 * 実行結果のファイル名を返します。
+	 *
+	 * @param className テストクラス名。
+	 * @param index シャードの番号。
+	 * @param count シャード数。
+	 * @return テストクラス名.shard-番号-of-シャード数.jsonl
+	 */
+	public static String fileName(String className, int index, int count) {
+		return className + ".shard-" + index + "-of-" + count + ".jsonl";
+	}
+
+	private JsonLine line(String type) {
+		return new JsonLine().put("type", type).put("shard", index).put("shards", count).put("mode", mode.name());
+	}
+
+	private void write(JsonLine json) { LogWriter.getInstance().println(outputDir, file.getName(), json.toString()); }
+}
@@ -0,0 +1,259 @@
+package dynamicJUnit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import util.base.JsonLine;
+import util.base.ProjectInfo;
+
+/**
+ * {@link dynamicJUnit.Shard Shard}で分割して実行した結果を1つにまとめるクラスです。<br />
+ * 出力先ディレクトリのシャードごとのファイルをテストクラスごとに読み込み、
+ * テストケースの順番に並べ替えて テストクラス名.merged.jsonl に出力します。
+ * シャード数の異なるファイルがある場合は、シャード数を指定しなければ最も新しく更新されたファイルのシャード数を使用し、
+ * それ以外のシャード数のファイルは以前の実行結果として対象外とします。
+ * 最終行には全体の件数・失敗件数・完了していないシャードを出力します。<br />
+ * mainメソッドから実行した場合は結果を標準出力に出力し、
+ * 失敗したテストケースまたは完了していないシャードがある場合は終了コード1で終了します。
+ *
+ * <pre>
+ * java dynamicJUnit.ShardReport [出力先ディレクトリ [シャード数]]
+ * </pre>
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class ShardReport {
+	private static final Pattern FILE_NAME = Pattern.compile("(.+)\\.shard-(\\d+)-of-(\\d+)\\.jsonl");
+	private static final Pattern FIELD = Pattern.compile("\"([^\"]+)\":(\"((?:[^\"\\\\]|\\\\.)*)\"|[^,}]+)");
+
+	/** テストクラス名です。 */
+	public final String className;
+	/** シャード数です。 */
+	public final int shards;
+	/** シャードの決定方法です。 */
+	public String mode;
+	/** テストケースの件数です。 */
+	public int cases;
+	/** 失敗したテストケースの件数です。 */
+	public int failures;
+	/** スキップしたテストケースの件数です。 */
+	public int skipped;
+	/** 全てのテストケースの実行時間の合計(ナノ秒)です。 */
+	public long durationNanos;
+	/** 失敗したテストケースの名前です。 */
+	public final List<String> failedNames = new ArrayList<String>();
+	/** 実行が完了していないシャードの番号です。 */
+	public final TreeSet<Integer> missingShards = new TreeSet<Integer>();
+
+	private ShardReport(String className, int shards) {
+		this.className = className;
+		this.shards = shards;
+		for (int i = 0; i < shards; i++) missingShards.add(i);
+	}
+
+	/**
+	 * 分割して実行した結果をまとめます。
+	 *
+	 * @param args 出力先ディレクトリとシャード数。
+	 * 出力先ディレクトリを省略した場合はシステムプロパティ dynamicJUnit.shard.output 、プロジェクトの logs/shards の順に参照します。
+	 * シャード数を省略した場合は最も新しい実行結果のシャード数を使用します。
+	 * @throws IOException ファイルの読み書きに失敗した場合。
+	 */
+	public static void main(String[] args) throws IOException {
+		File dir = new File(args.length > 0 ? args[0] : System.getProperty("dynamicJUnit.shard.output", ProjectInfo.absolutePath + "/logs/shards/"));
+		int shards = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+		boolean ok = true;
+		for (ShardReport report : merge(dir, shards)) {
+			System.out.println(report);
+			ok &= report.failures == 0 && report.missingShards.isEmpty();
+		}
+		if (!ok) System.exit(1);
+	}
+
+	/**
+	 * ディレクトリ内のシャードごとのファイルをテストクラスごとにまとめ、 テストクラス名.merged.jsonl に出力します。<br />
+	 * シャード数は、テストクラスごとに最も新しく更新されたファイルのシャード数を使用します。
+	 *
+	 * @param dir 出力先ディレクトリ。
+	 * @return テストクラスごとの結果。
+	 * @throws IOException ファイルの読み書きに失敗した場合。
+	 * @see #merge(File, int)
+	 */
+	public static List<ShardReport> merge(File dir) throws IOException { return merge(dir, 0); }
+
+	/**
+	 * ディレクトリ内のシャードごとのファイルをテストクラスごとにまとめ、 テストクラス名.merged.jsonl に出力します。<br />
+	 * 指定したシャード数以外のファイル、およびシャードの決定方法が最も新しいファイルと異なるファイルは対象外とします。
+	 *
+	 * @param dir 出力先ディレクトリ。
+	 * @param shards シャード数。0の場合はテストクラスごとに最も新しく更新されたファイルのシャード数を使用します。
+	 * @return テストクラスごとの結果。
+	 * @throws IOException ファイルの読み書きに失敗した場合。
+	 */
+	public static List<ShardReport> merge(File dir, int shards) throws IOException {
+		File[] files = dir.listFiles();
+		if (files == null) files = new File[0];
+		Arrays.sort(files);
+		// テストクラスごとに、シャード数の判定に使用する最も新しいファイルを求める。
+		Map<String, File> newest = new HashMap<String, File>();
+		for (File file : files) {
+			Matcher m = FILE_NAME.matcher(file.getName());
+			if (!m.matches()) continue;
+			if (shards > 0 && Integer.parseInt(m.group(3)) != shards) continue;
+			File current = newest.get(m.group(1));
+			if (current == null || file.lastModified() > current.lastModified()) newest.put(m.group(1), file);
+		}
+
+		Map<String, ShardReport> reports = new TreeMap<String, ShardReport>();
+		Map<String, List<Map<String, String>>> lines = new HashMap<String, List<Map<String, String>>>();
+		for (Map.Entry<String, File> e : newest.entrySet()) {
+			Matcher m = FILE_NAME.matcher(e.getValue().getName());
+			m.matches();
+			List<Map<String, String>> fileLines = read(e.getValue());
+			ShardReport report = new ShardReport(e.getKey(), Integer.parseInt(m.group(3)));
+			report.mode = fileLines.isEmpty() ? null : fileLines.get(0).get("mode");
+			reports.put(e.getKey(), report);
+			lines.put(e.getKey(), new ArrayList<Map<String, String>>());
+		}
+		for (File file : files) {
+			Matcher m = FILE_NAME.matcher(file.getName());
+			if (!m.matches()) continue;
+			String key = m.group(1);
+			ShardReport report = reports.get(key);
+			List<Map<String, String>> fileLines = read(file);
+			String mode = fileLines.isEmpty() ? null : fileLines.get(0).get("mode");
+			if (report == null || report.shards != Integer.parseInt(m.group(3)) || (mode != null && report.mode != null && !mode.equals(report.mode))) {
+				// シャード数・シャードの決定方法を変えて実行した古いファイルは対象外とする。
+				System.out.println("Skipped. " + file.getAbsolutePath() + " (expected " + (report == null ? shards : report.shards) + " shards, mode " + (report == null ? null : report.mode) + ")");
+				continue;
+			}
+			if (report.mode == null) report.mode = mode;
+			for (Map<String, String> line : fileLines) {
+				if ("end".equals(line.get("type"))) report.missingShards.remove(Integer.valueOf(line.get("shard")));
+				else if ("case".equals(line.get("type"))) lines.get(key).add(line);
+			}
+		}
+
+		List<ShardReport> result = new ArrayList<ShardReport>();
+		for (Map.Entry<String, ShardReport> e : reports.entrySet()) {
+			ShardReport report = e.getValue();
+			List<Map<String, String>> cases = lines.get(e.getKey());
+			Collections.sort(cases, new Comparator<Map<String, String>>() {
+				@Override
+				public int compare(Map<String, String> a, Map<String, String> b) {
+					return Long.valueOf(a.get("ordinal")).compareTo(Long.valueOf(b.get("ordinal")));
+				}
+			});
+			Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(new File(dir, report.className + ".merged.jsonl"))));
+			try {
+				for (Map<String, String> line : cases) {
+					report.add(line);
+					JsonLine json = new JsonLine()
+						.put("ordinal", Long.parseLong(line.get("ordinal")))
+						.put("shard", Long.parseLong(line.get("shard")))
+						.put("name", line.get("name"))
+						.put("status", line.get("status"))
+						.put("durationNanos", Long.parseLong(line.get("durationNanos")));
+					if (line.containsKey("failure")) json.put("failure", line.get("failure")).put("message", line.get("message"));
+					writer.write(json.toString());
+					writer.write(System.getProperty("line.separator"));
+				}
+				writer.write(new JsonLine()
+					.put("type", "summary")
+					.put("class", report.className)
+					.put("shards", report.shards)
+					.put("cases", report.cases)
+					.put("failures", report.failures)
+					.put("skipped", report.skipped)
+					.put("durationNanos", report.durationNanos)
+					.put("missingShards", report.missingShards.toString())
+					.toString());
+				writer.write(System.getProperty("line.separator"));
+			} finally {
+				writer.close();
+			}
+			result.add(report);
+		}
+		return result;
+	}
+
+	private void add(Map<String, String> line) {
+		cases++;
+		long nanos = Long.parseLong(line.get("durationNanos"));
+		if (nanos > 0) durationNanos += nanos;
+		if ("failed".equals(line.get("status"))) {
+			failures++;
+			failedNames.add(line.get("name"));
+		} else if ("skipped".equals(line.get("status"))) {
+			skipped++;
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(className).append(String.format(": %d cases, %d failures, %d skipped, %.1f ms, %d/%d shards completed%n",
+			cases, failures, skipped, durationNanos / 1e6, shards - missingShards.size(), shards));
+		if (!missingShards.isEmpty()) sb.append(String.format("  missing shards: %s%n", missingShards));
+		for (String name : failedNames) sb.append(String.format("  failed: %s%n", name));
+		return sb.toString();
+	}
+
+	/**
+	 * JSON Lines形式のファイルを読み込みます。{@link util.base.JsonLine JsonLine}で出力した、入れ子の無いオブジェクトのみに対応します。<br />
+	 * {@link util.base.LogWriter LogWriter}と同じく、既定の文字コードで読み込みます。
+	 */
+	private static List<Map<String, String>> read(File file) throws IOException {
+		List<Map<String, String>> lines = new ArrayList<Map<String, String>>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)));
+		try {
+			for (String line; (line = reader.readLine()) != null;) {
+				Map<String, String> map = new HashMap<String, String>();
+				Matcher m = FIELD.matcher(line);
+				while (m.find()) map.put(m.group(1), m.group(3) != null ? unescape(m.group(3)) : ("null".equals(m.group(2)) ? null : m.group(2)));
+				lines.add(map);
+			}
+		} finally {
+			reader.close();
+		}
+		return lines;
+	}
+
+	private static String unescape(String s) {
+		StringBuilder sb = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c != '\\' || i + 1 == s.length()) {
+				sb.append(c);
+				continue;
+			}
+			char n = s.charAt(++i);
+			switch (n) {
+				case 'n': sb.append('\n'); break;
+				case 'r': sb.append('\r'); break;
+				case 't': sb.append('\t'); break;
+				case 'u': sb.append((char) Integer.parseInt(s.substring(i + 1, i + 5), 16)); i += 4; break;
+				default: sb.append(n);
+			}
+		}
+		return sb.toString();
+	}
+}
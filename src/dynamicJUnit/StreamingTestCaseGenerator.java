@@ -0,0 +1,24 @@
+package dynamicJUnit;
+
+import java.util.Iterator;
+
+/**
+ * テストケースを逐次生成する動的テストケースクラスを作成するためのInterfaceです。<br />
+ * {@link dynamicJUnit.DynamicTestsRunner DynamicTestsRunner}は
+ * {@link dynamicJUnit.TestCaseGenerator#generateTestCases generateTestCases}メソッドの代わりに
+ * {@link dynamicJUnit.StreamingTestCaseGenerator#iterateTestCases iterateTestCases}メソッドを呼び出し、
+ * テストケースを1件づつ取り出しながら実行します。<br />
+ * 全てのテストケースをメモリ上に保持しないため、CSVファイル等から大量のテストケースを生成する場合に使用します。<br />
+ * テストケースの件数は実行前に確定しないため、テストクラスのDescriptionには子要素が含まれません。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public interface StreamingTestCaseGenerator extends TestCaseGenerator {
+	/**
+	 * テストケースを逐次生成するIteratorを返します。<br />
+	 * このメソッドはテストの実行開始時に一度だけ呼び出されます。
+	 *
+	 * @return TestCaseオブジェクトのIterator
+	 */
+	public Iterator<TestCase<?, ?>> iterateTestCases();
+}
@@ -12,8 +12,14 @@ import java.util.List;
  * @author tatsuo1234567@gmail.com
  */
 public class TestCase<T1, T2> {
+	/**
+	 * テスト名です。テスト名を遅延して生成するサブクラスではnullになるため、{@link #getName getName}メソッドを使用します。
+	 */
 	public final String name;
 	public final T1 expected;
+	/**
+	 * テストメソッドの引数です。引数をプリミティブ型で保持するサブクラスではnullになるため、{@link #getParam getParam}メソッドを使用します。
+	 */
 	public final T2 param;
 
 	/**
@@ -30,6 +36,32 @@ public class TestCase<T1, T2> {
 		this.param = param;
 	}
 
+	/**
+	 * テスト名を遅延して生成するサブクラス用のコンストラクタです。テスト名は{@link #getName getName}メソッドで生成します。
+	 *
+	 * @param expected 期待値。
+	 * @param param テストメソッドの引数。プリミティブ型の引数を持つサブクラスではnull。
+	 */
+	protected TestCase(T1 expected, T2 param) {
+		this.name = null;
+		this.expected = expected;
+		this.param = param;
+	}
+
+	/**
+	 * テスト名を返します。
+	 *
+	 * @return テスト名。
+	 */
+	public String getName() { return name; }
+
+	/**
+	 * テストメソッドの引数を返します。
+	 *
+	 * @return テストメソッドの引数。
+	 */
+	public T2 getParam() { return param; }
+
 	/**
 	 * パラメータの配列から複数のTestCaseクラスのInstanceを生成するファクトリメソッドです。<br />
 	 * 引数formatに書式指示子を渡すことでparamsの要素・expectedの値をテスト名に含めることができます。
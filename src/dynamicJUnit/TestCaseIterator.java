@@ -0,0 +1,43 @@
+package dynamicJUnit;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link dynamicJUnit.StreamingTestCaseGenerator StreamingTestCaseGenerator}の実装を簡単にするためのIteratorです。<br />
+ * 実装クラスは{@link dynamicJUnit.TestCaseIterator#computeNext computeNext}メソッドで次のテストケースを生成し、
+ * 生成するテストケースが無くなった場合はnullを返します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public abstract class TestCaseIterator implements Iterator<TestCase<?, ?>> {
+	private TestCase<?, ?> next;
+	private boolean done;
+
+	/**
+	 * 次のテストケースを生成します。
+	 *
+	 * @return 次のTestCaseオブジェクト。生成するテストケースが無い場合はnull。
+	 */
+	protected abstract TestCase<?, ?> computeNext();
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !done) {
+			next = computeNext();
+			done = (next == null);
+		}
+		return !done;
+	}
+
+	@Override
+	public TestCase<?, ?> next() {
+		if (!hasNext()) throw new NoSuchElementException();
+		TestCase<?, ?> testCase = next;
+		next = null;
+		return testCase;
+	}
+
+	@Override
+	public void remove() { throw new UnsupportedOperationException(); }
+}
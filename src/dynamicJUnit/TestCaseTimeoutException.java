@@ -0,0 +1,28 @@
+package dynamicJUnit;
+
+/**
+ * テストケースの実行時間が{@link dynamicJUnit.Deadline Deadline}で設定した上限を超えたことを表す例外です。<br />
+ * スタックトレースには、上限を超えた時点でテストケースを実行していたスレッドのスタックトレースが設定されます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class TestCaseTimeoutException extends Exception {
+	private static final long serialVersionUID = 1L;
+
+	/** 実行時間の上限(ミリ秒)です。 */
+	private final long timeoutMillis;
+
+	/**
+	 * @param testCaseName テストケースの名前。
+	 * @param timeoutMillis 実行時間の上限(ミリ秒)。
+	 */
+	public TestCaseTimeoutException(String testCaseName, long timeoutMillis) {
+		super("Test case '" + testCaseName + "' timed out after " + timeoutMillis + "ms");
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * 実行時間の上限(ミリ秒)を返します。
+	 */
+	public long getTimeoutMillis() { return timeoutMillis; }
+}
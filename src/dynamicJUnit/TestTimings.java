@@ -0,0 +1,131 @@
+package dynamicJUnit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * テストケースごとの実行時間を集計するクラスです。<br />
+ * {@link dynamicJUnit.DynamicTestsRunner DynamicTestsRunner}で実行したテストクラスの
+ * パーセンタイル値・実行時間の長いテストケース・スループットを算出します。<br />
+ * 実行時間はlong型の配列で保持し、テストケース名は実行時間の長い上位の件数分だけ保持します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class TestTimings {
+	/** 集計の開始時刻です。 */
+	private final long startNanos = System.nanoTime();
+	/** 保持するテストケース名の件数です。 */
+	private final int topN;
+	private long[] durations = new long[1024];
+	private int count;
+	private long setUpNanos;
+	private long tearDownNanos;
+	/** 実行時間の長いテストケース。先頭が最も短いテストケースです。 */
+	private final PriorityQueue<Timing> slowest = new PriorityQueue<Timing>();
+
+	/**
+	 * テストケース1件の実行時間です。
+	 */
+	public static final class Timing implements Comparable<Timing> {
+		public final String name;
+		public final long nanos;
+		Timing(String name, long nanos) { this.name = name; this.nanos = nanos; }
+		@Override public int compareTo(Timing o) { return nanos < o.nanos ? -1 : (nanos == o.nanos ? 0 : 1); }
+	}
+
+	/**
+	 * @param topN 実行時間の長いテストケースを保持する件数。
+	 */
+	public TestTimings(int topN) { this.topN = topN; }
+
+	/**
+	 * テストケース1件の実行時間を記録します。
+	 *
+	 * @param name テストケースの名前。
+	 * @param nanos 実行時間(ナノ秒)。
+	 */
+	public synchronized void record(String name, long nanos) {
+		if (count == durations.length) durations = Arrays.copyOf(durations, count * 2);
+		durations[count++] = nanos;
+		if (slowest.size() < topN) {
+			slowest.add(new Timing(name, nanos));
+		} else if (topN > 0 && slowest.peek().nanos < nanos) {
+			slowest.poll();
+			slowest.add(new Timing(name, nanos));
+		}
+	}
+
+	/**
+	 * {@link dynamicJUnit.TestCaseGenerator#setUp setUp}メソッドの実行時間を加算します。
+	 *
+	 * @param nanos 実行時間(ナノ秒)。
+	 */
+	public synchronized void recordSetUp(long nanos) { setUpNanos += nanos; }
+
+	/**
+	 * {@link dynamicJUnit.TestCaseGenerator#tearDown tearDown}メソッドの実行時間を加算します。
+	 *
+	 * @param nanos 実行時間(ナノ秒)。
+	 */
+	public synchronized void recordTearDown(long nanos) { tearDownNanos += nanos; }
+
+	/**
+	 * 記録したテストケースの件数を返します。
+	 */
+	public synchronized int count() { return count; }
+
+	/**
+	 * 実行時間のパーセンタイル値を返します。(nearest-rank法)
+	 *
+	 * @param p パーセンタイル(0～100)。
+	 * @return 実行時間(ナノ秒)。記録が無い場合は0。
+	 */
+	public synchronized long percentile(double p) { return percentile(sorted(), p); }
+
+	/**
+	 * 実行時間の長いテストケースを長い順に返します。
+	 *
+	 * @return Timingオブジェクトのリスト。
+	 */
+	public synchronized List<Timing> slowest() {
+		List<Timing> list = new ArrayList<Timing>(slowest);
+		Collections.sort(list, Collections.reverseOrder());
+		return list;
+	}
+
+	/**
+	 * 集計結果を複数行の文字列で返します。
+	 *
+	 * @return 集計結果。
+	 */
+	public synchronized String summary() {
+		long elapsed = System.nanoTime() - startNanos;
+		long[] sorted = sorted();
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("cases: %d, elapsed: %.1f ms, throughput: %.1f cases/s%n",
+			count, ms(elapsed), elapsed == 0 ? 0.0 : count * 1e9 / elapsed));
+		sb.append(String.format("setUp: %.1f ms, tearDown: %.1f ms%n", ms(setUpNanos), ms(tearDownNanos)));
+		sb.append(String.format("p50: %.3f ms, p95: %.3f ms, p99: %.3f ms, max: %.3f ms",
+			ms(percentile(sorted, 50)), ms(percentile(sorted, 95)), ms(percentile(sorted, 99)), ms(percentile(sorted, 100))));
+		int rank = 0;
+		for (Timing t : slowest()) sb.append(String.format("%n%3d. %.3f ms %s", ++rank, ms(t.nanos), t.name));
+		return sb.toString();
+	}
+
+	private long[] sorted() {
+		long[] sorted = Arrays.copyOf(durations, count);
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		if (sorted.length == 0) return 0;
+		int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+		return sorted[Math.min(Math.max(rank, 1), sorted.length) - 1];
+	}
+
+	private static double ms(long nanos) { return nanos / 1e6; }
+}
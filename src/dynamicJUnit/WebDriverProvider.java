@@ -0,0 +1,22 @@
+package dynamicJUnit;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * ブラウザを使用する動的テストケースクラスが実装するInterfaceです。<br />
+ * TestCaseGeneratorの実装クラスがこのInterfaceを実装すると、
+ * {@link dynamicJUnit.DynamicTestsRunner DynamicTestsRunner}はテストケースの失敗時に、
+ * 返されたWebDriverで表示しているページのスクリーンショットとページソースを保存します。<br />
+ * 保存は失敗したテストケースを実行したスレッドで、次のテストケースの実行前に行われます。
+ *
+ * @author tatsuo1234567@gmail.com
+ * @see util.base.TestBase.MyTestWatcher#captureFailure
+ */
+public interface WebDriverProvider {
+	/**
+	 * テストケースの実行に使用しているWebDriverを返します。
+	 *
+	 * @return WebDriver型オブジェクト。ブラウザを起動していない場合はnull。
+	 */
+	public WebDriver getDriver();
+}
@@ -0,0 +1,75 @@
+package dynamicJUnit.samples;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.runner.RunWith;
+
+import dynamicJUnit.DynamicTestsRunner;
+import dynamicJUnit.StreamingTestCaseGenerator;
+import dynamicJUnit.TestCase;
+import dynamicJUnit.TestCaseIterator;
+
+/**
+ * 動的テストケース作成機能を使ったFizzBuzzのテストです。<br />
+ * TestCaseオブジェクトを実行時に1件づつ生成します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+@RunWith(DynamicTestsRunner.class)
+public class FizzBuzzStreamTest implements StreamingTestCaseGenerator {
+
+	@Override
+	public Iterator<TestCase<?, ?>> iterateTestCases() {
+		final String format = "検証値: [%2$s] の時、実測値が[%1$s] であること。";
+
+		return new TestCaseIterator() {
+			private int i = 0;
+
+			@Override
+			protected TestCase<?, ?> computeNext() {
+				if (++i > 1000) return null;
+				return new TestCase<Object, Integer>(format, getFizzBuzz(i), i);
+			}
+		};
+	}
+
+	/**
+	 * このクラスのテストケースは{@link #iterateTestCases iterateTestCases}メソッドで生成されます。
+	 */
+	@Override
+	public List<TestCase<?, ?>> generateTestCases() { return Collections.emptyList(); }
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T1, T2> void invokeTestCase(TestCase<T1, T2> testCase) {
+		if(testCase.getParam() instanceof Integer) {
+			Integer paramInt = (Integer)testCase.getParam();
+			T1 actual = (T1)getFizzBuzz(paramInt); //actual(実測値)を取得
+			assertThat(testCase.getName(), actual, is(testCase.expected));
+		} else {
+			fail("invalid data type.");
+		}
+	}
+
+	/**
+	 * @param i Integer
+	 * @return Object String or Integer
+	 */
+	private Object getFizzBuzz(Integer i) {
+		return  (i%15 == 0) ? "FizzBuzz":
+				(i%5  == 0) ? "Buzz":
+				(i%3  == 0) ? "Fizz": i;
+	}
+
+	@Override
+	public void setUp() {}
+
+	@Override
+	public void tearDown() {}
+
+}
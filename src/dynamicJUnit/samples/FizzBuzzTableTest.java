@@ -0,0 +1,62 @@
+package dynamicJUnit.samples;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.runner.RunWith;
+
+import dynamicJUnit.DynamicTestsRunner;
+import dynamicJUnit.IntCaseTable;
+import dynamicJUnit.IntTestCase;
+import dynamicJUnit.TestCase;
+import dynamicJUnit.TestCaseGenerator;
+
+/**
+ * 動的テストケース作成機能を使ったFizzBuzzのテストです。<br />
+ * 大量のテストケースを{@link dynamicJUnit.IntCaseTable IntCaseTable}に格納し、
+ * 引数をint型のまま、テスト名・期待値を実行時に生成します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+@RunWith(DynamicTestsRunner.class)
+public class FizzBuzzTableTest implements TestCaseGenerator {
+
+	@Override
+	public List<TestCase<?, ?>> generateTestCases() {
+		return IntCaseTable.range("検証値: [%2$s] の時、実測値が[%1$s] であること。", 1, 10000, new IntCaseTable.Expectation<Object>() {
+			@Override
+			public Object of(int param) { return getFizzBuzz(param); }
+		});
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T1, T2> void invokeTestCase(TestCase<T1, T2> testCase) {
+		if(testCase instanceof IntTestCase) {
+			int param = ((IntTestCase<T1>)testCase).intParam();
+			T1 actual = (T1)getFizzBuzz(param); //actual(実測値)を取得
+			assertThat(testCase.getName(), actual, is(testCase.expected));
+		} else {
+			fail("invalid data type.");
+		}
+	}
+
+	/**
+	 * @param i int
+	 * @return Object String or Integer
+	 */
+	private Object getFizzBuzz(int i) {
+		return  (i%15 == 0) ? "FizzBuzz":
+				(i%5  == 0) ? "Buzz":
+				(i%3  == 0) ? "Fizz": i;
+	}
+
+	@Override
+	public void setUp() {}
+
+	@Override
+	public void tearDown() {}
+
+}
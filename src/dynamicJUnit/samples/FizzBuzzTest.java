@@ -8,17 +8,20 @@ import java.util.List;
 
 import org.junit.runner.RunWith;
 
+import dynamicJUnit.AbortPolicy;
 import dynamicJUnit.DynamicTestsRunner;
 import dynamicJUnit.TestCase;
 import dynamicJUnit.TestCaseGenerator;
 
 /**
  * 動的テストケース作成機能を使ったFizzBuzzのテストです。<br />
- * TestCaseクラスのコンストラクタを使用してInstanceを生成します。
+ * TestCaseクラスのコンストラクタを使用してInstanceを生成します。<br />
+ * 10件連続して失敗した場合は、残りのテストケースをスキップします。
  *
  * @author tatsuo1234567@gmail.com
  */
 @RunWith(DynamicTestsRunner.class)
+@AbortPolicy(consecutiveFailures = 10)
 public class FizzBuzzTest implements TestCaseGenerator {
 
 	@Override
@@ -40,10 +43,10 @@ public class FizzBuzzTest implements TestCaseGenerator {
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T1, T2> void invokeTestCase(TestCase<T1, T2> testCase) {
-		if(testCase.param instanceof Integer) {
-			Integer paramInt = (Integer)testCase.param;
+		if(testCase.getParam() instanceof Integer) {
+			Integer paramInt = (Integer)testCase.getParam();
 			T1 actual = (T1)getFizzBuzz(paramInt); //actual(実測値)を取得
-			assertThat(testCase.name, actual, is(testCase.expected));
+			assertThat(testCase.getName(), actual, is(testCase.expected));
 		} else {
 			fail("invalid data type.");
 		}
@@ -9,16 +9,19 @@ import java.util.List;
 import org.junit.runner.RunWith;
 
 import dynamicJUnit.DynamicTestsRunner;
+import dynamicJUnit.Parallel;
 import dynamicJUnit.TestCase;
 import dynamicJUnit.TestCaseGenerator;
 
 /**
  * 動的テストケース作成機能を使ったFizzBuzzのテストです。
- * TestCaseクラスのファクトリメソッドを使用してInstanceを生成します。
+ * TestCaseクラスのファクトリメソッドを使用してInstanceを生成します。<br />
+ * テストケースは4つのワーカースレッドで並列に実行されます。
  *
  * @author tatsuo1234567@gmail.com
  */
 @RunWith(DynamicTestsRunner.class)
+@Parallel(threads = 4)
 public class FizzBuzzTest2 implements TestCaseGenerator {
 
 	@Override
@@ -46,10 +49,10 @@ public class FizzBuzzTest2 implements TestCaseGenerator {
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T1, T2> void invokeTestCase(TestCase<T1, T2> testCase) {
-		if(testCase.param instanceof Integer) {
-			Integer paramInt = (Integer)testCase.param;
+		if(testCase.getParam() instanceof Integer) {
+			Integer paramInt = (Integer)testCase.getParam();
 			T1 actual = (T1)getFizzBuzz(paramInt); //actual(実測値)を取得
-			assertThat(testCase.name, actual, is(testCase.expected));
+			assertThat(testCase.getName(), actual, is(testCase.expected));
 		} else {
 			fail("invalid data type.");
 		}
@@ -0,0 +1,123 @@
+package dynamicJUnit.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+
+import dynamicJUnit.AbortMonitor;
+import dynamicJUnit.AbortPolicy;
+import dynamicJUnit.DynamicTestsRunner;
+import dynamicJUnit.TestCase;
+import dynamicJUnit.TestCaseGenerator;
+
+/**
+ * AbortMonitorクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class AbortMonitorTest {
+	private static final Throwable FAILURE = new AssertionError("failure");
+
+	/**
+	 * 3件連続して失敗すると打ち切られるテストクラスです。全てのテストケースが失敗します。
+	 */
+	@RunWith(DynamicTestsRunner.class)
+	@AbortPolicy(consecutiveFailures = 3)
+	public static class Failing implements TestCaseGenerator {
+		@Override
+		public List<TestCase<?, ?>> generateTestCases() {
+			List<TestCase<?, ?>> cases = new ArrayList<TestCase<?, ?>>();
+			for (int i = 1; i <= 10; i++) cases.add(new TestCase<Integer, Integer>("case%2$d", i, i));
+			return cases;
+		}
+
+		@Override
+		public <T1, T2> void invokeTestCase(TestCase<T1, T2> testCase) { fail(testCase.getName()); }
+
+		@Override
+		public void setUp() {}
+
+		@Override
+		public void tearDown() {}
+	}
+
+	/**
+	 * recordメソッドのテスト
+	 */
+	@Test
+	public void recordTest01() {
+		AbortMonitor monitor = new AbortMonitor(3, 0, 10, 0);
+		assertThat("1件目の失敗では打ち切らないこと。", monitor.record(FAILURE), is(false));
+		assertThat("2件目の失敗では打ち切らないこと。", monitor.record(FAILURE), is(false));
+		assertThat("成功すると連続した失敗の件数が戻ること。", monitor.record(null), is(false));
+		assertThat("成功の後の1件目の失敗では打ち切らないこと。", monitor.record(FAILURE), is(false));
+		assertThat("成功の後の2件目の失敗では打ち切らないこと。", monitor.record(FAILURE), is(false));
+		assertThat("3件連続して失敗すると打ち切ること。", monitor.record(FAILURE), is(true));
+		assertThat("打ち切ったこと", monitor.isAborted(), is(true));
+		assertThat("打ち切った理由", monitor.getReason(), is("aborted after 3 consecutive failures"));
+	}
+
+	/**
+	 * recordメソッドのテスト
+	 */
+	@Test
+	public void recordTest02() {
+		AbortMonitor monitor = new AbortMonitor(0, 50, 4, 0);
+		assertThat("最小件数に満たない場合は打ち切らないこと。", monitor.record(FAILURE), is(false));
+		assertThat("最小件数に満たない場合は打ち切らないこと。", monitor.record(FAILURE), is(false));
+		assertThat("最小件数に満たない場合は打ち切らないこと。", monitor.record(null), is(false));
+		assertThat("最小件数に達し、失敗率が50%以上の場合は打ち切ること。", monitor.record(null), is(true));
+		assertThat("打ち切った理由", monitor.getReason(), is("aborted after 2 of 4 cases failed"));
+	}
+
+	/**
+	 * recordメソッドのテスト
+	 */
+	@Test
+	public void recordTest03() {
+		AbortMonitor monitor = new AbortMonitor(0, 50, 4, 0);
+		for (int i = 0; i < 3; i++) monitor.record(null);
+		assertThat("失敗率が50%未満の場合は打ち切らないこと。", monitor.record(FAILURE), is(false));
+		assertThat("打ち切っていないこと", monitor.getReason(), is(nullValue()));
+	}
+
+	/**
+	 * recordメソッドのテスト
+	 */
+	@Test
+	public void recordTest04() {
+		AbortMonitor monitor = new AbortMonitor(0, 0, 10, 3);
+		assertThat("1件目の失敗では打ち切らないこと。", monitor.record(new IllegalStateException("no such element: id 12")), is(false));
+		assertThat("異なる種類の失敗は別に数えること。", monitor.record(new IllegalArgumentException("no such element: id 34")), is(false));
+		assertThat("成功しても件数は戻らないこと。", monitor.record(null), is(false));
+		assertThat("2件目の失敗では打ち切らないこと。", monitor.record(new IllegalStateException("no such element: id 56")), is(false));
+		assertThat("数字だけが異なる同じ失敗が3件になると打ち切ること。", monitor.record(new IllegalStateException("no such element: id 78\nat line 9")), is(true));
+		assertThat("打ち切った理由", monitor.getReason(), is("aborted after 3 failures with java.lang.IllegalStateException: no such element: id #"));
+	}
+
+	/**
+	 * ofメソッドのテスト
+	 */
+	@Test
+	public void ofTest01() {
+		assertThat("AbortPolicyが無い場合はnullを返すこと。", AbortMonitor.of(AbortMonitorTest.class), is(nullValue()));
+		assertThat("AbortPolicyがある場合は生成すること。", AbortMonitor.of(Failing.class), is(notNullValue()));
+	}
+
+	/**
+	 * 打ち切った後のテストケースがスキップされることのテスト
+	 */
+	@Test
+	public void skippedTest01() {
+		Result result = JUnitCore.runClasses(Failing.class);
+		assertThat("打ち切るまでのテストケースが失敗すること。", result.getFailureCount(), is(3));
+		assertThat("残りのテストケースがスキップされること。", result.getIgnoreCount(), is(7));
+	}
+}
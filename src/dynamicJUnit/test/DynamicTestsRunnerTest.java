@@ -0,0 +1,133 @@
+package dynamicJUnit.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+
+import dynamicJUnit.Deadline;
+import dynamicJUnit.DynamicTestsRunner;
+import dynamicJUnit.TestCase;
+import dynamicJUnit.TestCaseGenerator;
+import dynamicJUnit.TestCaseTimeoutException;
+
+/**
+ * DynamicTestsRunnerクラスで提供される、テストケースの実行時間の上限のテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class DynamicTestsRunnerTest {
+	/** Hangingクラスのテストケースを実行したInstanceの番号です。 */
+	static final Map<String, Integer> ranBy = new ConcurrentHashMap<String, Integer>();
+	/** Hangingクラスで生成したInstanceの数です。 */
+	static final AtomicInteger instances = new AtomicInteger();
+	/** Hangingクラスのテスト対象のsetUpメソッドの実行回数です。 */
+	static final AtomicInteger setUps = new AtomicInteger();
+	/** Slowクラスのテストケースの実行回数です。 */
+	static final AtomicInteger invocations = new AtomicInteger();
+
+	/**
+	 * 2件目のテストケースが応答しなくなるテストクラスです。テストケース1件の上限は500ミリ秒です。
+	 */
+	@RunWith(DynamicTestsRunner.class)
+	@Deadline(caseMillis = 500)
+	public static class Hanging implements TestCaseGenerator {
+		private final int id = instances.incrementAndGet();
+
+		@Override
+		public List<TestCase<?, ?>> generateTestCases() { return cases(4); }
+
+		@Override
+		public <T1, T2> void invokeTestCase(TestCase<T1, T2> testCase) {
+			ranBy.put(testCase.getName(), id);
+			if (testCase.getName().equals("case2")) sleep(60000);
+		}
+
+		@Override
+		public void setUp() { setUps.incrementAndGet(); }
+
+		@Override
+		public void tearDown() {}
+	}
+
+	/**
+	 * 1件200ミリ秒かかるテストケースを10件実行するテストクラスです。テストクラス全体の上限は500ミリ秒です。
+	 */
+	@RunWith(DynamicTestsRunner.class)
+	@Deadline(suiteMillis = 500)
+	public static class Slow implements TestCaseGenerator {
+		@Override
+		public List<TestCase<?, ?>> generateTestCases() { return cases(10); }
+
+		@Override
+		public <T1, T2> void invokeTestCase(TestCase<T1, T2> testCase) {
+			invocations.incrementAndGet();
+			sleep(200);
+		}
+
+		@Override
+		public void setUp() {}
+
+		@Override
+		public void tearDown() {}
+	}
+
+	/**
+	 * テストケースの実行時間の上限のテスト
+	 */
+	@Test
+	public void caseDeadlineTest01() {
+		ranBy.clear();
+		instances.set(0);
+		setUps.set(0);
+		Result result = JUnitCore.runClasses(Hanging.class);
+
+		assertThat("応答しないテストケースのみ失敗すること。", result.getFailureCount(), is(1));
+		assertThat("上限を超えたことが通知されること。", result.getFailures().get(0).getException() instanceof TestCaseTimeoutException, is(true));
+		assertThat("残りのテストケースが実行されること。", ranBy.keySet().containsAll(Arrays.asList("case1", "case3", "case4")), is(true));
+		assertThat("上限を超えるまでは同じInstanceで実行すること。", ranBy.get("case2"), is(ranBy.get("case1")));
+		assertThat("上限を超えた後は新しいInstanceで実行すること。", ranBy.get("case3").equals(ranBy.get("case2")), is(false));
+		assertThat("新しいInstanceで続けて実行すること。", ranBy.get("case4"), is(ranBy.get("case3")));
+		assertThat("新しいInstanceのsetUpメソッドが実行されること。", setUps.get(), is(2));
+	}
+
+	/**
+	 * テストクラス全体の実行時間の上限のテスト
+	 */
+	@Test
+	public void suiteDeadlineTest01() {
+		invocations.set(0);
+		Result result = JUnitCore.runClasses(Slow.class);
+
+		assertThat("上限を超えた後のテストケースがスキップされること。", result.getIgnoreCount() >= 5, is(true));
+		assertThat("全てのテストケースが実行またはスキップされること。", invocations.get() + result.getIgnoreCount(), is(10));
+		assertThat("上限の途中で実行中のテストケースのみ失敗すること。", result.getFailureCount() <= 1, is(true));
+	}
+
+	private static List<TestCase<?, ?>> cases(int n) {
+		List<TestCase<?, ?>> cases = new ArrayList<TestCase<?, ?>>();
+		for (int i = 1; i <= n; i++) cases.add(new TestCase<Integer, Integer>("case%2$d", i, i));
+		return cases;
+	}
+
+	/**
+	 * 指定した時間待機します。割り込まれた場合は待機を終了します。
+	 */
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package dynamicJUnit.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.RunWith;
+
+import util.base.LogWriter;
+import dynamicJUnit.DynamicTestsRunner;
+import dynamicJUnit.Shard;
+import dynamicJUnit.Shard.Mode;
+import dynamicJUnit.ShardReport;
+import dynamicJUnit.TestCase;
+import dynamicJUnit.TestCaseGenerator;
+
+/**
+ * ShardReportクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class ShardReportTest {
+	/** 別プロセスで実行するシャード数です。 */
+	private static final int PROCESSES = 3;
+
+	/**
+	 * 別プロセスで分割して実行するテストクラスです。5の倍数のテストケースが失敗します。
+	 */
+	@RunWith(DynamicTestsRunner.class)
+	public static class Cases implements TestCaseGenerator {
+		@Override
+		public List<TestCase<?, ?>> generateTestCases() {
+			List<TestCase<?, ?>> cases = new ArrayList<TestCase<?, ?>>();
+			for (int i = 1; i <= 20; i++) cases.add(new TestCase<Boolean, Integer>("case%2$d", i % 5 != 0, i));
+			return cases;
+		}
+
+		@Override
+		public <T1, T2> void invokeTestCase(TestCase<T1, T2> testCase) {
+			assertThat(testCase.getName(), (Object) Boolean.TRUE, is((Object) testCase.expected));
+		}
+
+		@Override
+		public void setUp() {}
+
+		@Override
+		public void tearDown() {}
+	}
+
+	/**
+	 * mergeメソッドのテスト
+	 */
+	@Test
+	public void mergeTest01() throws IOException {
+		File dir = tempDir();
+		// シャード数を変えて実行する前の古い結果。
+		write(dir, 2, 10, "old");
+		for (File file : dir.listFiles()) file.setLastModified(System.currentTimeMillis() - 60000);
+		write(dir, 4, 8, "new");
+
+		List<ShardReport> reports = ShardReport.merge(dir);
+		assertThat("テストクラスごとに1件にまとめること。", reports.size(), is(1));
+		ShardReport report = reports.get(0);
+		assertThat("最も新しいファイルのシャード数を使用すること。", report.shards, is(4));
+		assertThat("古いシャード数のファイルを含めないこと。", report.cases, is(8));
+		assertThat("全てのシャードが完了していること。", report.missingShards.isEmpty(), is(true));
+		assertThat("失敗したテストケースを集計すること。", report.failedNames.toString(), is("[new0, new4]"));
+	}
+
+	/**
+	 * mergeメソッドのテスト
+	 */
+	@Test
+	public void mergeTest02() throws IOException {
+		File dir = tempDir();
+		write(dir, 2, 10, "old");
+		for (File file : dir.listFiles()) file.setLastModified(System.currentTimeMillis() - 60000);
+		write(dir, 4, 8, "new");
+
+		ShardReport report = ShardReport.merge(dir, 2).get(0);
+		assertThat("指定したシャード数を使用すること。", report.shards, is(2));
+		assertThat("指定したシャード数のファイルのみ含めること。", report.cases, is(10));
+		assertThat("失敗したテストケースを集計すること。", report.failures, is(3));
+	}
+
+	/**
+	 * mergeメソッドのテスト
+	 */
+	@Test
+	public void mergeTest03() throws IOException {
+		File dir = tempDir();
+		write(dir, 3, 9, "case");
+		// LogWriterが開いているファイルを削除する。
+		LogWriter.getInstance().delete(dir, Shard.fileName(ShardReportTest.class.getName(), 1, 3));
+		LogWriter.getInstance().flush();
+
+		ShardReport report = ShardReport.merge(dir).get(0);
+		assertThat("ファイルの無いシャードを未完了とすること。", report.missingShards.toString(), is("[1]"));
+		assertThat("残りのシャードのテストケースを集計すること。", report.cases, is(6));
+	}
+
+	/**
+	 * 別プロセスで分割して実行した結果をまとめるテスト
+	 */
+	@Test
+	public void mergeTest04() throws Exception {
+		File dir = tempDir();
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		List<Process> processes = new ArrayList<Process>();
+		for (int i = 0; i < PROCESSES; i++) {
+			ProcessBuilder pb = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				"-DdynamicJUnit.shard.count=" + PROCESSES, "-DdynamicJUnit.shard.index=" + i,
+				"-DdynamicJUnit.shard.output=" + dir.getAbsolutePath(),
+				JUnitCore.class.getName(), Cases.class.getName());
+			processes.add(pb.redirectErrorStream(true).start());
+		}
+		for (Process process : processes) {
+			// 出力を読み捨てないとバッファが一杯になりプロセスが停止するため、終了まで読み込む。
+			InputStream in = process.getInputStream();
+			while (in.read() != -1) ;
+			in.close();
+			assertThat("失敗したテストケースがあるため、終了コードが1であること。", process.waitFor(), is(1));
+		}
+
+		List<ShardReport> reports = ShardReport.merge(dir);
+		assertThat("テストクラスごとに1件にまとめること。", reports.size(), is(1));
+		ShardReport report = reports.get(0);
+		assertThat("テストクラス名", report.className, is(Cases.class.getName()));
+		assertThat("全てのテストケースを集計すること。", report.cases, is(20));
+		assertThat("全てのシャードが完了していること。", report.missingShards.isEmpty(), is(true));
+		assertThat("失敗したテストケースを順番に並べること。", report.failedNames.toString(), is("[case5, case10, case15, case20]"));
+		assertThat("まとめた結果を出力すること。", new File(dir, Cases.class.getName() + ".merged.jsonl").isFile(), is(true));
+	}
+
+	/**
+	 * Shardを使用して、cases件のテストケースをcount個に分割して実行した結果を出力します。
+	 * テストケースは名前に付けた番号が4の倍数の場合に失敗したものとします。
+	 */
+	private static void write(File dir, int count, int cases, String prefix) {
+		List<TestCase<?, ?>> list = new ArrayList<TestCase<?, ?>>();
+		for (int i = 0; i < cases; i++) list.add(new TestCase<Integer, Integer>(prefix + "%2$d", i, i));
+		for (int index = 0; index < count; index++) {
+			Shard shard = new Shard(index, count, Mode.INDEX, dir);
+			shard.begin(ShardReportTest.class);
+			for (Iterator<TestCase<?, ?>> it = shard.filter(list.iterator()); it.hasNext();) {
+				TestCase<?, ?> testCase = it.next();
+				shard.record(testCase, (Integer) testCase.getParam() % 4 == 0 ? new AssertionError(testCase.getName()) : null, 1000);
+			}
+			shard.end();
+		}
+		LogWriter.getInstance().flush();
+	}
+
+	private static File tempDir() throws IOException {
+		File dir = File.createTempFile("shardReport", "");
+		dir.delete();
+		dir.mkdirs();
+		return dir;
+	}
+}
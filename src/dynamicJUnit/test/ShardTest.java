@@ -0,0 +1,99 @@
+package dynamicJUnit.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import dynamicJUnit.Shard;
+import dynamicJUnit.Shard.Mode;
+import dynamicJUnit.TestCase;
+
+/**
+ * Shardクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class ShardTest {
+	private static final File DIR = new File(System.getProperty("java.io.tmpdir"));
+
+	/**
+	 * テストケースのリストを生成します。テスト名は case0, case1, ... です。
+	 */
+	static List<TestCase<?, ?>> cases(int n) {
+		List<TestCase<?, ?>> cases = new ArrayList<TestCase<?, ?>>();
+		for (int i = 0; i < n; i++) cases.add(new TestCase<Integer, Integer>("case%2$d", i, i));
+		return cases;
+	}
+
+	/**
+	 * コンストラクタのテスト
+	 */
+	@Test
+	public void constructorTest01() {
+		try {
+			new Shard(3, 3, Mode.INDEX, DIR);
+			fail("例外が発生すること。");
+		} catch (IllegalArgumentException e) {
+			assertThat("シャードの番号がメッセージに含まれること。", e.getMessage().contains("index 3"), is(true));
+		}
+	}
+
+	/**
+	 * acceptsメソッドのテスト
+	 */
+	@Test
+	public void acceptsTest01() {
+		Shard shard = new Shard(1, 3, Mode.INDEX, DIR);
+		TestCase<?, ?> testCase = cases(1).get(0);
+		assertThat("順番をシャード数で割った余りが番号と等しい場合に実行すること。", shard.accepts(4, testCase), is(true));
+		assertThat("順番をシャード数で割った余りが番号と異なる場合に実行しないこと。", shard.accepts(5, testCase), is(false));
+	}
+
+	/**
+	 * acceptsメソッドのテスト
+	 */
+	@Test
+	public void acceptsTest02() {
+		List<TestCase<?, ?>> cases = cases(100);
+		for (int i = 0; i < cases.size(); i++) {
+			int accepted = 0;
+			for (int index = 0; index < 4; index++) {
+				Shard shard = new Shard(index, 4, Mode.HASH, DIR);
+				// hashの場合は順番が変わっても同じシャードで実行すること。
+				if (shard.accepts(i, cases.get(i))) {
+					accepted++;
+					assertThat("順番に関わらずテスト名で決定されること。", shard.accepts(i + 1, cases.get(i)), is(true));
+				}
+			}
+			assertThat("全てのテストケースがいずれか1つのシャードで実行されること。", accepted, is(1));
+		}
+	}
+
+	/**
+	 * filterメソッドのテスト
+	 */
+	@Test
+	public void filterTest01() {
+		List<String> names = new ArrayList<String>();
+		for (Iterator<TestCase<?, ?>> it = new Shard(0, 3, Mode.INDEX, DIR).filter(cases(10).iterator()); it.hasNext();) names.add(it.next().getName());
+		assertThat("このシャードで実行するテストケースのみを返すこと。", names.toString(), is("[case0, case3, case6, case9]"));
+	}
+
+	/**
+	 * filterメソッドのテスト
+	 */
+	@Test
+	public void filterTest02() {
+		int total = 0;
+		for (int index = 0; index < 3; index++) {
+			for (Iterator<TestCase<?, ?>> it = new Shard(index, 3, Mode.HASH, DIR).filter(cases(50).iterator()); it.hasNext(); it.next()) total++;
+		}
+		assertThat("全てのシャードを合わせると全てのテストケースを返すこと。", total, is(50));
+	}
+}
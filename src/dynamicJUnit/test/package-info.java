@@ -0,0 +1,4 @@
+/**
+ * このパッケージは、dynamicJUnitパッケージで提供されるクラスのテストクラスを格納します。
+ */
+package dynamicJUnit.test;
@@ -35,8 +35,7 @@ public class Sample extends util.base.TestBase {
 	@Override
 	@After
 	public void tearDown() {
-		sleep(3000);
-		driver.quit();
+		super.tearDown();
 	}
 
 	/**
@@ -72,6 +71,7 @@ public class Sample extends util.base.TestBase {
 		txtSearch.sendKeys(prefix + word);
 		btnSearch.click();
 
+		spanTemperature.waitUntilVisible(5000);
 		saveScreenshot();
 		assertThat("福岡市の気温が15度以下であること",  Integer.parseInt(spanTemperature.getText()) <= 15 , is(true));
 	}
@@ -95,6 +95,7 @@ public class Sample extends util.base.TestBase {
 
 		txtSearch.sendKeys(word);
 		btnSearch.click();
+		spanCalculated.waitUntilPresent(5000);
 		saveScreenshot();
 		assertThat("計算結果が正しいこと。", spanCalculated.getText(), is(calcResult.toString()));
 	}
@@ -122,6 +123,7 @@ public class Sample extends util.base.TestBase {
 
 		txtSearch.sendKeys(word);
 		btnSearch.click();
+		spanCalculated.waitUntilPresent(5000);
 		saveScreenshot();
 		assertThat("計算結果が正しいこと。", spanCalculated.getText(), is(calcResult.toString()));
 	}
@@ -0,0 +1,27 @@
+package util.base;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 名前付きのデーモンスレッドを生成するThreadFactoryです。<br />
+ * バックグラウンド処理のスレッドがJVMの終了を妨げないようにするために使用します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+	private final String prefix;
+	private final AtomicInteger count = new AtomicInteger();
+
+	/**
+	 * @param prefix スレッド名の接頭辞。スレッド名は 接頭辞-連番 となります。
+	 */
+	public DaemonThreadFactory(String prefix) { this.prefix = prefix; }
+
+	@Override
+	public Thread newThread(Runnable r) {
+		Thread t = new Thread(r, prefix + "-" + count.incrementAndGet());
+		t.setDaemon(true);
+		return t;
+	}
+}
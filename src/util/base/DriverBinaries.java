@@ -0,0 +1,152 @@
+package util.base;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * chromedriver・IEDriverServer等のWebDriverの実行ファイルを、実行中のOS・CPUアーキテクチャに合わせて検索するクラスです。<br />
+ * 実行ファイルは次の順番で検索し、最初に見つかったものを使用します。検索結果はJVMごとに1回だけ求めて再利用します。
+ * <ol>
+ * <li>実行ファイルごとのシステムプロパティ (webdriver.chrome.driver, webdriver.ie.driver)</li>
+ * <li>プロジェクトの drivers/&lt;OS&gt;-&lt;アーキテクチャ&gt;/ フォルダ (例: drivers/linux-x64/chromedriver)</li>
+ * <li>プロジェクトの drivers/ フォルダ</li>
+ * <li>キャッシュフォルダの &lt;OS&gt;-&lt;アーキテクチャ&gt;/ フォルダとキャッシュフォルダ</li>
+ * <li>環境変数 PATH のフォルダ</li>
+ * </ol>
+ * キャッシュフォルダはシステムプロパティ webdriver.drivers.cache で指定します。既定値は ホームディレクトリ/.cache/selenium です。
+ * OSは windows, mac, linux、アーキテクチャは x64, x86, arm64 のいずれかです。Windowsでは実行ファイル名に .exe を付けて検索します。<br />
+ * drivers/ フォルダとキャッシュフォルダの実行ファイルに実行権限が無い場合は、実行権限の付与を試みます。
+ * システムプロパティと PATH で指定されたファイルは変更しません。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class DriverBinaries {
+	/** 実行ファイル名をキーとする検索結果です。 */
+	private static final ConcurrentHashMap<String, File> resolved = new ConcurrentHashMap<String, File>();
+
+	private DriverBinaries() {}
+
+	/**
+	 * chromedriverの実行ファイルを返します。
+	 *
+	 * @return 実行ファイルのFile型オブジェクト。
+	 */
+	public static File chromeDriver() { return resolve("chromedriver", "webdriver.chrome.driver"); }
+
+	/**
+	 * IEDriverServerの実行ファイルを返します。
+	 *
+	 * @return 実行ファイルのFile型オブジェクト。
+	 */
+	public static File ieDriver() { return resolve("IEDriverServer", "webdriver.ie.driver"); }
+
+	/**
+	 * WebDriverの実行ファイルを検索します。同じ実行ファイルは2回目以降は検索せずに前回の結果を返します。
+	 *
+	 * @param name 拡張子を除いた実行ファイル名。
+	 * @param property 実行ファイルのパスを指定するシステムプロパティの名前。無い場合はnull。
+	 * @return 実行ファイルのFile型オブジェクト。
+	 * @throws IllegalStateException 実行ファイルが見つからない場合。
+	 */
+	public static File resolve(String name, String property) {
+		File file = resolved.get(name);
+		if (file != null) return file;
+		List<File> candidates = candidates(name, property);
+		List<File> managed = managedDirs();
+		for (File f : candidates) {
+			if (isExecutable(f, managed.contains(f.getParentFile()))) {
+				File existing = resolved.putIfAbsent(name, f.getAbsoluteFile());
+				return existing != null ? existing : f.getAbsoluteFile();
+			}
+		}
+		throw new IllegalStateException("The " + executable(name) + " executable for " + platform() + " was not found in " + candidates);
+	}
+
+	/**
+	 * 実行ファイルを検索する場所を、検索する順番で返します。
+	 *
+	 * @param name 拡張子を除いた実行ファイル名。
+	 * @param property 実行ファイルのパスを指定するシステムプロパティの名前。無い場合はnull。
+	 * @return 実行ファイルの候補のリスト。
+	 */
+	public static List<File> candidates(String name, String property) {
+		String exe = executable(name);
+		List<File> list = new ArrayList<File>();
+		String path = (property == null) ? null : System.getProperty(property);
+		if (path != null) list.add(new File(path));
+		for (File dir : managedDirs()) list.add(new File(dir, exe));
+		String env = System.getenv("PATH");
+		if (env != null) {
+			for (String dir : env.split(File.pathSeparator)) {
+				if (dir.length() > 0) list.add(new File(dir, exe));
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * プロジェクトの drivers/ フォルダとキャッシュフォルダを、検索する順番で返します。
+	 */
+	private static List<File> managedDirs() {
+		File drivers = new File(ProjectInfo.absolutePath, "drivers");
+		File cache = cacheDir();
+		List<File> list = new ArrayList<File>();
+		list.add(new File(drivers, platform()));
+		list.add(drivers);
+		list.add(new File(cache, platform()));
+		list.add(cache);
+		return list;
+	}
+
+	/**
+	 * WebDriverの実行ファイルをダウンロード・配置するキャッシュフォルダを返します。
+	 *
+	 * @return システムプロパティ webdriver.drivers.cache の値。指定されていない場合は ホームディレクトリ/.cache/selenium 。
+	 */
+	public static File cacheDir() {
+		String dir = System.getProperty("webdriver.drivers.cache");
+		return dir != null ? new File(dir) : new File(new File(System.getProperty("user.home"), ".cache"), "selenium");
+	}
+
+	/**
+	 * 実行中のOS・CPUアーキテクチャを返します。
+	 *
+	 * @return linux-x64 のように OS-アーキテクチャ で表した文字列。
+	 */
+	public static String platform() { return os() + "-" + arch(); }
+
+	/**
+	 * 実行中のOSで使用する実行ファイル名を返します。
+	 *
+	 * @param name 拡張子を除いた実行ファイル名。
+	 * @return Windowsの場合は .exe を付けた実行ファイル名。
+	 */
+	public static String executable(String name) { return os().equals("windows") ? name + ".exe" : name; }
+
+	private static String os() {
+		String os = System.getProperty("os.name").toLowerCase();
+		if (os.startsWith("windows")) return "windows";
+		if (os.startsWith("mac")) return "mac";
+		return "linux";
+	}
+
+	private static String arch() {
+		String arch = System.getProperty("os.arch").toLowerCase();
+		if (arch.equals("aarch64") || arch.startsWith("arm64")) return "arm64";
+		if (arch.contains("64")) return "x64";
+		return "x86";
+	}
+
+	/**
+	 * 実行可能なファイルかどうかを返します。
+	 *
+	 * @param f 実行ファイルの候補。
+	 * @param managed drivers/ フォルダまたはキャッシュフォルダのファイルの場合はtrue。
+	 * 実行権限の無いファイル(zipから展開した場合等)は実行権限の付与を試みます。
+	 */
+	private static boolean isExecutable(File f, boolean managed) {
+		return f.isFile() && (f.canExecute() || (managed && f.setExecutable(true)));
+	}
+}
@@ -0,0 +1,125 @@
+package util.base;
+
+import java.io.File;
+
+/**
+ * WebDriverFactoryでブラウザを起動する際の設定をまとめた名前付きのプロファイルです。<br />
+ * ヘッドレスモード、画像・CSS・Webフォントの読み込みの無効化、ブラウザのプロファイルの雛形となるディレクトリ、
+ * ページ読み込みの待機方法(pageLoadStrategy)を指定します。<br />
+ * 既定のプロファイルは{@link #DEFAULT}・{@link #HEADLESS}・{@link #FAST}です。
+ * TestBaseのdriverProfileをOverrideすることでテストクラスごとに選択でき、
+ * システムプロパティ webdriver.profile, webdriver.profile.template で既定値を変更できます。<br />
+ * 設定はFirefox・Chromeに適用されます。HtmlUnitは元々ヘッドレスで画像を読み込まず、IEは設定に対応していないため適用されません。
+ * ヘッドレスモードはChromeのみ対応しています。Firefoxでヘッドレスモードのプロファイルを指定した場合はIllegalArgumentExceptionが発生します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class DriverProfile {
+
+	/** ページ読み込みの待機方法を表す列挙型定数です。 */
+	public static enum PageLoad {
+		/** 全てのリソースの読み込みを待ちます。 */
+		NORMAL,
+		/** DOMの構築(DOMContentLoaded)まで待ちます。 */
+		EAGER,
+		/** 待機しません。 */
+		NONE;
+
+		/** pageLoadStrategyのcapabilityの値を返します。 */
+		public String capability() { return name().toLowerCase(); }
+	}
+
+	/** ブラウザの既定の設定で起動するプロファイルです。 */
+	public static final DriverProfile DEFAULT = new DriverProfile("default", false, false, null, PageLoad.NORMAL);
+	/** ヘッドレスモードで起動するプロファイルです。Chromeのみ対応しています。 */
+	public static final DriverProfile HEADLESS = new DriverProfile("headless", true, false, null, PageLoad.NORMAL);
+	/** ヘッドレスモードで画像・CSS・Webフォントを読み込まず、DOMの構築までしか待たないプロファイルです。Chromeのみ対応しています。 */
+	public static final DriverProfile FAST = new DriverProfile("fast", true, true, null, PageLoad.EAGER);
+
+	private final String name;
+	private final boolean headless;
+	private final boolean lightweight;
+	private final File template;
+	private final PageLoad pageLoad;
+
+	/**
+	 * @param name プロファイルの名前。
+	 * @param headless trueの場合、ヘッドレスモードで起動します。
+	 * @param lightweight trueの場合、画像・CSS・Webフォントを読み込みません。
+	 * @param template ブラウザのプロファイルの雛形となるディレクトリ。nullの場合は新しいプロファイルを使用します。
+	 * @param pageLoad ページ読み込みの待機方法。
+	 */
+	public DriverProfile(String name, boolean headless, boolean lightweight, File template, PageLoad pageLoad) {
+		if (name == null || pageLoad == null) throw new IllegalArgumentException("name and pageLoad are required");
+		this.name = name;
+		this.headless = headless;
+		this.lightweight = lightweight;
+		this.template = template;
+		this.pageLoad = pageLoad;
+	}
+
+	/**
+	 * 名前に対応する既定のプロファイルを返します。
+	 *
+	 * @param name default, headless, fast のいずれか。
+	 * @return DriverProfile型オブジェクト。
+	 */
+	public static DriverProfile named(String name) {
+		for (DriverProfile p : new DriverProfile[] {DEFAULT, HEADLESS, FAST}) {
+			if (p.name.equalsIgnoreCase(name)) return p;
+		}
+		throw new IllegalArgumentException("Unknown driver profile: " + name);
+	}
+
+	/**
+	 * システムプロパティ webdriver.profile (既定値はdefault) で指定されたプロファイルを返します。<br />
+	 * webdriver.profile.template を指定した場合は、そのディレクトリをプロファイルの雛形とします。
+	 *
+	 * @return DriverProfile型オブジェクト。
+	 */
+	public static DriverProfile fromSystemProperties() {
+		DriverProfile p = named(System.getProperty("webdriver.profile", DEFAULT.name));
+		String template = System.getProperty("webdriver.profile.template");
+		return template == null ? p : p.withTemplate(new File(template));
+	}
+
+	/**
+	 * プロファイルの雛形となるディレクトリを指定したプロファイルを返します。<br />
+	 * ディレクトリは起動ごとに複製して使用するため、同時に起動する複数のブラウザで共有できます。
+	 * 拡張機能や初回起動時の設定を済ませたプロファイルを指定すると、起動時の初期化処理を省略できます。
+	 *
+	 * @param dir ブラウザのプロファイルのディレクトリ。
+	 * @return DriverProfile型オブジェクト。
+	 */
+	public DriverProfile withTemplate(File dir) { return new DriverProfile(name, headless, lightweight, dir, pageLoad); }
+
+	/**
+	 * ページ読み込みの待機方法を指定したプロファイルを返します。
+	 *
+	 * @param pageLoad ページ読み込みの待機方法。
+	 * @return DriverProfile型オブジェクト。
+	 */
+	public DriverProfile withPageLoad(PageLoad pageLoad) { return new DriverProfile(name, headless, lightweight, template, pageLoad); }
+
+	public String getName() { return name; }
+	public boolean isHeadless() { return headless; }
+	public boolean isLightweight() { return lightweight; }
+	public File getTemplate() { return template; }
+	public PageLoad getPageLoad() { return pageLoad; }
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof DriverProfile)) return false;
+		DriverProfile p = (DriverProfile) o;
+		return name.equals(p.name) && headless == p.headless && lightweight == p.lightweight
+			&& (template == null ? p.template == null : template.equals(p.template)) && pageLoad == p.pageLoad;
+	}
+
+	@Override
+	public int hashCode() { return toString().hashCode(); }
+
+	@Override
+	public String toString() {
+		return name + "[headless=" + headless + ", lightweight=" + lightweight + ", template=" + template + ", pageLoad=" + pageLoad.capability() + "]";
+	}
+}
@@ -0,0 +1,175 @@
+package util.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Point;
+
+/**
+ * 要素のプロパティをまとめて取得した結果を保持する不変クラスです。<br />
+ * {@link util.base.Selector#snapshot Selector.snapshot}メソッドで、
+ * 1回のjavascript実行で取得したプロパティの値を格納します。<br />
+ * 取得していないプロパティのgetterはnullを返します。
+ *
+ * <pre>
+ * ElementSnapshot s = $("#name").snapshot(Property.VALUE, Property.DISPLAYED, Property.ENABLED);
+ * s.getValue(); s.isDisplayed(); s.isEnabled();
+ * </pre>
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class ElementSnapshot {
+	/**
+	 * 取得するプロパティの列挙型定数です。<br />
+	 * TEXTとDISPLAYEDはブラウザ上のjavascriptで算出するため、
+	 * 空白の扱いや可視判定の細部がWebElementのgetText・isDisplayedと異なる場合があります。
+	 */
+	public static enum Property {TAG_NAME, TEXT, VALUE, DISPLAYED, ENABLED, SELECTED, LOCATION, SIZE}
+
+	/** 全てのプロパティです。 */
+	public static final Property[] ALL = Property.values();
+
+	private static final String SCRIPT =
+		  "var els = document.querySelectorAll(arguments[0]), props = arguments[2], attrs = arguments[3], css = arguments[4];"
+		+ "var n = arguments[1] ? els.length : Math.min(els.length, 1), out = [];"
+		+ "for (var i = 0; i < n; i++) {"
+		+ "  var e = els[i], r = {}, a = {}, c = {}, st = window.getComputedStyle(e), b = e.getBoundingClientRect();"
+		+ "  for (var j = 0; j < props.length; j++) {"
+		+ "    var p = props[j];"
+		+ "    if (p == 'TAG_NAME') r[p] = e.tagName.toLowerCase();"
+		+ "    else if (p == 'TEXT') r[p] = (e.innerText !== undefined ? e.innerText : e.textContent).replace(/^\\s+|\\s+$/g, '');"
+		+ "    else if (p == 'VALUE') r[p] = (e.value !== undefined ? String(e.value) : e.getAttribute('value'));"
+		+ "    else if (p == 'DISPLAYED') {"
+		+ "      var v = true;"
+		+ "      for (var x = e; x && x.nodeType == 1; x = x.parentNode) {"
+		+ "        var xs = window.getComputedStyle(x);"
+		+ "        if (xs.display == 'none' || xs.visibility == 'hidden' || xs.opacity == '0') { v = false; break; }"
+		+ "      }"
+		+ "      r[p] = v && b.width > 0 && b.height > 0;"
+		+ "    }"
+		+ "    else if (p == 'ENABLED') r[p] = !e.disabled;"
+		+ "    else if (p == 'SELECTED') r[p] = !!(e.checked || e.selected);"
+		+ "    else if (p == 'LOCATION') r[p] = [b.left + window.pageXOffset, b.top + window.pageYOffset];"
+		+ "    else if (p == 'SIZE') r[p] = [b.width, b.height];"
+		+ "  }"
+		+ "  for (var j = 0; j < attrs.length; j++) a[attrs[j]] = e.getAttribute(attrs[j]);"
+		+ "  for (var j = 0; j < css.length; j++) c[css[j]] = st.getPropertyValue(css[j]);"
+		+ "  r.attributes = a; r.css = c; out.push(r);"
+		+ "}"
+		+ "return out;";
+
+	private final Map<Property, Object> properties;
+	private final Map<String, String> attributes;
+	private final Map<String, String> cssValues;
+
+	private ElementSnapshot(Map<Property, Object> properties, Map<String, String> attributes, Map<String, String> cssValues) {
+		this.properties = Collections.unmodifiableMap(properties);
+		this.attributes = Collections.unmodifiableMap(attributes);
+		this.cssValues = Collections.unmodifiableMap(cssValues);
+	}
+
+	/**
+	 * cssセレクターにマッチした要素のプロパティを1回のjavascript実行で取得します。
+	 *
+	 * @param jsx javascriptを実行するJavascriptExecutor。
+	 * @param selector cssセレクター文字列。
+	 * @param all trueの場合はマッチした全ての要素、falseの場合は最初の要素のみを対象とします。
+	 * @param attributes 取得する属性名の配列。
+	 * @param cssProperties 取得するCSSプロパティ名の配列。
+	 * @param props 取得するプロパティ。
+	 * @return ElementSnapshotオブジェクトのリスト。マッチした要素が無い場合は空のリスト。
+	 */
+	static List<ElementSnapshot> query(JavascriptExecutor jsx, String selector, boolean all,
+			String[] attributes, String[] cssProperties, Property... props) {
+		List<String> names = new ArrayList<String>();
+		for (Property p : EnumSet.copyOf(Arrays.asList(props.length == 0 ? ALL : props))) names.add(p.name());
+		Object result = jsx.executeScript(SCRIPT, selector, all, names, Arrays.asList(attributes), Arrays.asList(cssProperties));
+
+		List<ElementSnapshot> snapshots = new ArrayList<ElementSnapshot>();
+		for (Object o : (List<?>) result) snapshots.add(valueOf((Map<?, ?>) o));
+		return snapshots;
+	}
+
+	/**
+	 * javascriptの実行結果からElementSnapshotを生成します。
+	 */
+	private static ElementSnapshot valueOf(Map<?, ?> raw) {
+		Map<Property, Object> properties = new EnumMap<Property, Object>(Property.class);
+		for (Property p : ALL) {
+			if (!raw.containsKey(p.name())) continue;
+			Object v = raw.get(p.name());
+			if (p == Property.LOCATION) {
+				List<?> xy = (List<?>) v;
+				v = new Point(round(xy.get(0)), round(xy.get(1)));
+			} else if (p == Property.SIZE) {
+				List<?> wh = (List<?>) v;
+				v = new Dimension(round(wh.get(0)), round(wh.get(1)));
+			}
+			properties.put(p, v);
+		}
+		return new ElementSnapshot(properties, strings(raw.get("attributes")), strings(raw.get("css")));
+	}
+
+	private static Map<String, String> strings(Object raw) {
+		Map<String, String> map = new HashMap<String, String>();
+		if (raw instanceof Map) {
+			for (Map.Entry<?, ?> e : ((Map<?, ?>) raw).entrySet()) {
+				map.put(String.valueOf(e.getKey()), e.getValue() == null ? null : String.valueOf(e.getValue()));
+			}
+		}
+		return map;
+	}
+
+	private static int round(Object number) { return (int) Math.round(((Number) number).doubleValue()); }
+
+	/** 要素のタグ名を返します。 */
+	public String getTagName() { return (String) properties.get(Property.TAG_NAME); }
+
+	/** 要素の表示テキストを返します。 */
+	public String getText() { return (String) properties.get(Property.TEXT); }
+
+	/** 要素のvalueを返します。 */
+	public String getValue() { return (String) properties.get(Property.VALUE); }
+
+	/** 要素が表示されているかどうかを返します。 */
+	public Boolean isDisplayed() { return (Boolean) properties.get(Property.DISPLAYED); }
+
+	/** 要素が有効かどうかを返します。 */
+	public Boolean isEnabled() { return (Boolean) properties.get(Property.ENABLED); }
+
+	/** 要素が選択されているかどうかを返します。 */
+	public Boolean isSelected() { return (Boolean) properties.get(Property.SELECTED); }
+
+	/** ページ上の要素の左上の位置を返します。 */
+	public Point getLocation() { return (Point) properties.get(Property.LOCATION); }
+
+	/** 要素の幅と高さを返します。 */
+	public Dimension getSize() { return (Dimension) properties.get(Property.SIZE); }
+
+	/**
+	 * 取得した属性の値を返します。
+	 *
+	 * @param name 属性名。
+	 * @return 属性の値。要素に属性が存在しない場合、または取得していない場合はnull。
+	 */
+	public String getAttribute(String name) { return attributes.get(name); }
+
+	/**
+	 * 取得したCSSプロパティの値を返します。
+	 *
+	 * @param name CSSプロパティ名。
+	 * @return CSSプロパティの計算値。取得していない場合はnull。
+	 */
+	public String getCssValue(String name) { return cssValues.get(name); }
+
+	@Override
+	public String toString() { return "ElementSnapshot" + properties + " attributes=" + attributes + " css=" + cssValues; }
+}
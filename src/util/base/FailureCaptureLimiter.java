@@ -0,0 +1,71 @@
+package util.base;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * テスト失敗時のスクリーンショット・ページソースの取得回数を制限するクラスです。<br />
+ * 同じURLで同じ失敗が発生した場合は、一定時間内に1回だけ取得を許可します。
+ * また、一定時間内に取得を許可する回数にも上限を設け、
+ * 多数のテストケースが連続して失敗した場合にファイルの書き込みでテストの実行が滞らないようにします。<br />
+ * 時間はシステムプロパティ failureCapture.windowMillis 、
+ * 回数の上限は failureCapture.maxPerWindow で変更できます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class FailureCaptureLimiter {
+	private static final FailureCaptureLimiter INSTANCE = new FailureCaptureLimiter(
+		Long.getLong("failureCapture.windowMillis", 60 * 1000L),
+		Integer.getInteger("failureCapture.maxPerWindow", 20)
+	);
+
+	private final long windowMillis;
+	private final int maxPerWindow;
+	/** URLと失敗の組み合わせごとの最後に取得を許可した時刻です。古いものから順に並びます。 */
+	private final Map<String, Long> lastCaptured = new LinkedHashMap<String, Long>();
+
+	/**
+	 * @param windowMillis 同じURLと失敗の組み合わせの取得を1回に制限する時間(ミリ秒)。
+	 * @param maxPerWindow windowMillisの時間内に取得を許可する回数の上限。
+	 */
+	public FailureCaptureLimiter(long windowMillis, int maxPerWindow) {
+		this.windowMillis = windowMillis;
+		this.maxPerWindow = maxPerWindow;
+	}
+
+	/**
+	 * FailureCaptureLimiterのInstanceを返します。全てのテストで共有されます。
+	 *
+	 * @return FailureCaptureLimiter型オブジェクト。
+	 */
+	public static FailureCaptureLimiter getInstance() { return INSTANCE; }
+
+	/**
+	 * 取得を許可するかどうかを判定します。許可した場合は取得したものとして記録します。
+	 *
+	 * @param url 失敗時に表示していたページのURL。
+	 * @param e 発生した例外。
+	 * @return 取得してよい場合はtrue。
+	 */
+	public synchronized boolean tryAcquire(String url, Throwable e) {
+		long now = System.currentTimeMillis();
+		for (Iterator<Long> it = lastCaptured.values().iterator(); it.hasNext();) {
+			if (now - it.next() < windowMillis) break;
+			it.remove();
+		}
+		String key = url + "\n" + signature(e);
+		if (lastCaptured.containsKey(key) || lastCaptured.size() >= maxPerWindow) return false;
+		lastCaptured.put(key, now);
+		return true;
+	}
+
+	/**
+	 * 例外の種類とメッセージの1行目を連結した文字列を返します。
+	 */
+	static String signature(Throwable e) {
+		String message = e.getMessage();
+		if (message != null && message.indexOf('\n') >= 0) message = message.substring(0, message.indexOf('\n'));
+		return e.getClass().getName() + ": " + message;
+	}
+}
@@ -0,0 +1,172 @@
+package util.base;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * テスト用に生成したhtmlを内容のハッシュ値をキーとして保持するキャッシュです。<br />
+ * 同じ内容のhtmlはメモリ上・ディスク上に一度だけ格納され、再利用されます。<br />
+ * メモリ上・ディスク上のそれぞれで保持する件数に上限があり、最も長く使用されていないものから破棄されます。
+ * ディスク上のファイルはJVMごとの一時ディレクトリに格納され、
+ * {@link util.base.FixtureCache#clear clear}メソッドの呼び出し時とJVMの終了時に削除されます。<br />
+ * 上限の件数はシステムプロパティ fixture.cache.maxEntries で変更できます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class FixtureCache {
+	private static FixtureCache instance;
+
+	private final int maxEntries;
+	private final File dir;
+	private final Map<String, byte[]> memory;
+	private final Map<String, File> files;
+
+	/**
+	 * FixtureCacheを生成します。通常は{@link util.base.FixtureCache#getInstance getInstance}メソッドを使用します。
+	 *
+	 * @param maxEntries メモリ上・ディスク上のそれぞれで保持する件数の上限。
+	 * @param dir ファイルを格納するディレクトリ。
+	 */
+	public FixtureCache(int maxEntries, File dir) {
+		this.maxEntries = maxEntries;
+		this.dir = dir;
+		this.memory = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) { return size() > FixtureCache.this.maxEntries; }
+		};
+		this.files = new LinkedHashMap<String, File>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, File> eldest) {
+				if (size() <= FixtureCache.this.maxEntries) return false;
+				eldest.getValue().delete();
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * FixtureCacheのInstanceを返します。<br />
+	 * 初回の呼び出し時に一時ディレクトリを作成し、JVMの終了時に削除するように登録します。
+	 *
+	 * @return FixtureCache型オブジェクト。
+	 */
+	public static synchronized FixtureCache getInstance() {
+		if (instance == null) {
+			File dir;
+			try {
+				dir = File.createTempFile("seleniumUtility-fixtures", "");
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			dir.delete();
+			dir.mkdirs();
+			instance = new FixtureCache(Integer.getInteger("fixture.cache.maxEntries", 256), dir);
+			final FixtureCache cache = instance;
+			Runtime.getRuntime().addShutdownHook(new Thread() {
+				@Override public void run() { cache.clear(); cache.dir.delete(); }
+			});
+		}
+		return instance;
+	}
+
+	/**
+	 * htmlをメモリ上に格納し、キーを返します。同じ内容のhtmlが格納済みの場合は再利用します。
+	 *
+	 * @param html 格納するhtml。
+	 * @return htmlの内容のハッシュ値。
+	 */
+	public synchronized String put(String html) {
+		byte[] bytes = toBytes(html);
+		String key = hash(bytes);
+		// getで最近使用した順番を更新する。containsKeyでは更新されない。
+		if (memory.get(key) == null) memory.put(key, bytes);
+		return key;
+	}
+
+	/**
+	 * メモリ上に格納されたhtmlを返します。
+	 *
+	 * @param key {@link util.base.FixtureCache#put put}メソッドが返したキー。
+	 * @return htmlのバイト列。破棄されている場合はnull。
+	 */
+	public synchronized byte[] get(String key) { return memory.get(key); }
+
+	/**
+	 * htmlをファイルに書き込み、そのファイルを返します。同じ内容のファイルが存在する場合は書き込みを行いません。
+	 *
+	 * @param html 書き込むhtml。
+	 * @return htmlファイルのオブジェクト。
+	 * @throws IOException ファイルの書き込みに失敗した場合。
+	 */
+	public synchronized File toFile(String html) throws IOException {
+		byte[] bytes = toBytes(html);
+		String key = hash(bytes);
+		File file = files.get(key);
+		if (file != null && file.isFile()) return file;
+
+		file = new File(dir, key + ".html");
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(bytes);
+		} finally {
+			out.close();
+		}
+		files.put(key, file);
+		System.out.println("HTML File Created. " + file.getAbsolutePath());
+		return file;
+	}
+
+	/**
+	 * メモリ上のhtmlとディスク上のファイルを全て削除します。
+	 */
+	public synchronized void clear() {
+		memory.clear();
+		List<File> list = new ArrayList<File>(files.values());
+		files.clear();
+		for (File file : list) file.delete();
+	}
+
+	/**
+	 * メモリ上に格納されているhtmlの件数を返します。
+	 */
+	public synchronized int memoryCount() { return memory.size(); }
+
+	/**
+	 * ディスク上に格納されているファイルの件数を返します。
+	 */
+	public synchronized int fileCount() { return files.size(); }
+
+	/**
+	 * バイト列のSHA-1ハッシュ値を16進数の文字列で返します。
+	 *
+	 * @param bytes バイト列。
+	 * @return ハッシュ値。
+	 */
+	public static String hash(byte[] bytes) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+			StringBuilder sb = new StringBuilder(digest.length * 2);
+			for (byte b : digest) sb.append(String.format("%02x", b & 0xff));
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static byte[] toBytes(String s) {
+		try {
+			return s.getBytes("UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package util.base;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * テスト用のhtmlをメモリ上から配信するHTTPサーバーです。<br />
+ * JVMごとに1つだけ起動し、127.0.0.1の空いているポートで待ち受けます。<br />
+ * jQuery・Bootstrapは /assets/ 以下から配信します。
+ * ファイルはクラスパスの util/base/assets/ 、プロジェクトの assets フォルダの順に検索します。
+ * サーバーはネットワークに接続せず、ファイルを取得・保存しません。
+ * どちらにもファイルが無い場合は、{@link #assetUrl assetUrl}メソッドが配布元のCDNのURLを返し、ブラウザがCDNから読み込みます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class FixtureServer {
+	/** jQueryのファイル名です。 */
+	public static final String JQUERY = "jquery-1.10.1.min.js";
+	/** Bootstrapのファイル名です。 */
+	public static final String BOOTSTRAP = "bootstrap.min.css";
+
+	/** 配信可能なファイル名と配布元のCDNのURLです。 */
+	private static final Map<String, String> ASSET_SOURCES;
+	static {
+		Map<String, String> sources = new HashMap<String, String>();
+		sources.put(JQUERY, "http://code.jquery.com/jquery-1.10.1.min.js");
+		sources.put(BOOTSTRAP, "http://netdna.bootstrapcdn.com/bootstrap/3.0.0/css/bootstrap.min.css");
+		ASSET_SOURCES = Collections.unmodifiableMap(sources);
+	}
+
+	/** assetsを配置するフォルダです。 */
+	private static final File ASSET_DIR = new File(ProjectInfo.absolutePath + "/assets/");
+
+	private static FixtureServer instance;
+
+	private final HttpServer server;
+	private final String baseUrl;
+	private final Map<String, byte[]> assets = new ConcurrentHashMap<String, byte[]>();
+
+	private FixtureServer() throws IOException {
+		InetAddress loopback = InetAddress.getByName("127.0.0.1");
+		server = HttpServer.create(new InetSocketAddress(loopback, 0), 0);
+		server.createContext("/fixture/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				String name = exchange.getRequestURI().getPath().substring("/fixture/".length());
+				String key = name.endsWith(".html") ? name.substring(0, name.length() - ".html".length()) : name;
+				respond(exchange, FixtureCache.getInstance().get(key), "text/html; charset=UTF-8", false);
+			}
+		});
+		server.createContext("/assets/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				String name = exchange.getRequestURI().getPath().substring("/assets/".length());
+				String type = name.endsWith(".css") ? "text/css; charset=UTF-8" : "application/javascript; charset=UTF-8";
+				byte[] body = asset(name);
+				if (body == null) System.out.println("Asset Not Found. " + new File(ASSET_DIR, name).getAbsolutePath());
+				respond(exchange, body, type, true);
+			}
+		});
+		server.setExecutor(Executors.newCachedThreadPool(new DaemonThreadFactory("FixtureServer")));
+		server.start();
+		baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * FixtureServerのInstanceを返します。初回の呼び出し時にサーバーを起動します。
+	 *
+	 * @return FixtureServer型オブジェクト。
+	 */
+	public static synchronized FixtureServer getInstance() {
+		if (instance == null) {
+			try {
+				instance = new FixtureServer();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			final FixtureServer server = instance;
+			Runtime.getRuntime().addShutdownHook(new Thread() {
+				@Override public void run() { server.server.stop(0); }
+			});
+		}
+		return instance;
+	}
+
+	/**
+	 * htmlを登録し、配信するURLを返します。<br />
+	 * htmlは{@link util.base.FixtureCache FixtureCache}に内容のハッシュ値をキーとして格納されるため、
+	 * 同じ内容のhtmlは同じURLになります。
+	 *
+	 * @param html 配信するhtml。
+	 * @return htmlを配信するURL。
+	 */
+	public String register(String html) {
+		return baseUrl + "/fixture/" + FixtureCache.getInstance().put(html) + ".html";
+	}
+
+	/**
+	 * assetsを読み込むURLを返します。<br />
+	 * ファイルがクラスパス・assets フォルダに無い場合は配布元のCDNのURLを返します。
+	 *
+	 * @param name ファイル名。
+	 * @return ファイルを配信するURL。
+	 */
+	public String assetUrl(String name) {
+		if (asset(name) == null && ASSET_SOURCES.containsKey(name)) return ASSET_SOURCES.get(name);
+		return baseUrl + "/assets/" + name;
+	}
+
+	/**
+	 * サーバーのURLを返します。
+	 *
+	 * @return http://127.0.0.1:ポート番号
+	 */
+	public String getBaseUrl() { return baseUrl; }
+
+	/**
+	 * assetsのファイルの内容を返します。読み込んだ内容はメモリ上に保持されます。
+	 *
+	 * @param name ファイル名。
+	 * @return ファイルの内容。ファイルが無い場合はnull。
+	 */
+	private byte[] asset(String name) {
+		if (!ASSET_SOURCES.containsKey(name)) return null;
+		byte[] bytes = assets.get(name);
+		if (bytes == null) {
+			bytes = loadAsset(name);
+			if (bytes != null) assets.put(name, bytes);
+		}
+		return bytes;
+	}
+
+	private byte[] loadAsset(String name) {
+		try {
+			InputStream in = FixtureServer.class.getResourceAsStream("assets/" + name);
+			if (in != null) return readFully(in);
+			File file = new File(ASSET_DIR, name);
+			if (file.isFile()) return readFully(new FileInputStream(file));
+			return null;
+		} catch (IOException e) {
+			System.out.println(e);
+			return null;
+		}
+	}
+
+	private static void respond(HttpExchange exchange, byte[] body, String contentType, boolean cacheable) throws IOException {
+		try {
+			if (body == null) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			exchange.getResponseHeaders().set("Content-Type", contentType);
+			exchange.getResponseHeaders().set("Cache-Control", cacheable ? "public, max-age=31536000" : "no-cache");
+			exchange.sendResponseHeaders(200, body.length);
+			OutputStream out = exchange.getResponseBody();
+			out.write(body);
+			out.close();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buf = new byte[8192];
+			for (int n; (n = in.read(buf)) != -1;) out.write(buf, 0, n);
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+}
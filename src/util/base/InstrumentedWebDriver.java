@@ -0,0 +1,194 @@
+package util.base;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.internal.WrapsElement;
+
+/**
+ * WebDriver・WebElementのコマンドの実行回数・実行時間を計測するデコレーターです。<br />
+ * {@link #wrap wrap}メソッドで元のWebDriverと同じインターフェイスを実装したWebDriverを生成し、
+ * 全てのコマンドを{@link util.base.WebDriverMetrics WebDriverMetrics}に記録します。
+ * コマンドの戻り値のWebElement・navigate()・manage()・switchTo()等も同様に計測します。<br />
+ * コマンド名は findElement, get, executeScript, navigate.to, manage.timeouts.implicitlyWait, element.getText のようになります。
+ * 要素の検索・操作は検索に使用したBy(Selectorの場合はcssセレクター)ごとにも記録します。<br />
+ * 元のWebDriver・WebElementは{@link org.openqa.selenium.WrapsDriver WrapsDriver}・
+ * {@link org.openqa.selenium.internal.WrapsElement WrapsElement}または{@link #unwrap(WebDriver) unwrap}メソッドで取得できます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class InstrumentedWebDriver {
+
+	private InstrumentedWebDriver() {}
+
+	/**
+	 * コマンドを計測するWebDriverを返します。
+	 *
+	 * @param driver 元のWebDriver型オブジェクト。
+	 * @return 元のWebDriverと同じインターフェイスを実装したWebDriver型オブジェクト。既に計測している場合は引数のWebDriver。
+	 */
+	public static WebDriver wrap(WebDriver driver) {
+		if (driver == null || isInstrumented(driver)) return driver;
+		WebDriverMetrics.getInstance().enable();
+		return (WebDriver) new Handler(driver, "", null, null).proxy;
+	}
+
+	/**
+	 * コマンドを計測するWebDriver・WebElementかどうかを返します。
+	 *
+	 * @param o WebDriver・WebElement型オブジェクト。
+	 * @return wrapメソッドで生成したWebDriver、またはそのWebDriverから取得したWebElementの場合はtrue。
+	 */
+	public static boolean isInstrumented(Object o) {
+		return o != null && Proxy.isProxyClass(o.getClass()) && Proxy.getInvocationHandler(o) instanceof Handler;
+	}
+
+	/**
+	 * 元のWebDriverを返します。
+	 *
+	 * @param driver WebDriver型オブジェクト。
+	 * @return 元のWebDriver。計測していない場合は引数のWebDriver。
+	 */
+	public static WebDriver unwrap(WebDriver driver) { return (WebDriver) target(driver); }
+
+	/**
+	 * 元のWebElementを返します。
+	 *
+	 * @param element WebElement型オブジェクト。
+	 * @return 元のWebElement。計測していない場合は引数のWebElement。
+	 */
+	public static WebElement unwrap(WebElement element) { return (WebElement) target(element); }
+
+	private static Object target(Object o) { return isInstrumented(o) ? ((Handler) Proxy.getInvocationHandler(o)).target : o; }
+
+	/**
+	 * WebDriver・WebElement・WebDriverの内部インターフェイスの呼び出しを計測するInvocationHandlerです。
+	 */
+	private static final class Handler implements InvocationHandler {
+		final Object target;
+		/** コマンド名の接頭辞です。 */
+		final String prefix;
+		/** 要素を検索したロケーターです。WebElement以外はnull。 */
+		final String locator;
+		/** WebDriverのHandlerです。 */
+		final Handler root;
+		final Object proxy;
+
+		Handler(Object target, String prefix, String locator, Handler root) {
+			this.target = target;
+			this.prefix = prefix;
+			this.locator = locator;
+			this.root = (root == null) ? this : root;
+			Class<?> wrapper = (target instanceof WebDriver) ? WrapsDriver.class : (target instanceof WebElement) ? WrapsElement.class : null;
+			this.proxy = Proxy.newProxyInstance(target.getClass().getClassLoader(), interfaces(target.getClass(), wrapper), this);
+		}
+
+		@Override
+		public Object invoke(Object p, Method m, Object[] args) throws Throwable {
+			String name = m.getName();
+			if (m.getDeclaringClass() == Object.class) {
+				// 同じ要素を別々に検索した場合も等しくなるように、両辺を元のオブジェクトにして比較する。
+				if ("equals".equals(name)) return target.equals(target(args[0]));
+				if ("hashCode".equals(name)) return target.hashCode();
+				return call(m, args);
+			}
+			// 元のオブジェクトが実装していないWrapsDriver・WrapsElementのメソッドは元のオブジェクトを返す。
+			if (!m.getDeclaringClass().isInstance(target)) return target;
+			if (isAccessor(m, args)) return wrap(m, call(m, args), prefix + name + ".", null);
+
+			String command = prefix + name;
+			String loc = (args != null && args.length == 1 && args[0] instanceof By) ? args[0].toString() : locator;
+			long start = System.nanoTime();
+			boolean failed = true;
+			try {
+				Object result = call(m, unwrapArgs(args));
+				failed = false;
+				return wrap(m, result, command + ".", loc);
+			} finally {
+				WebDriverMetrics.getInstance().record(command, loc, System.nanoTime() - start, failed);
+			}
+		}
+
+		private Object call(Method m, Object[] args) throws Throwable {
+			try {
+				return m.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		/**
+		 * 戻り値をコマンドを計測するオブジェクトに置き換えます。
+		 */
+		private Object wrap(Method m, Object result, String nestedPrefix, String loc) {
+			if (result == null) return null;
+			if (result == root.target) return root.proxy;
+			if (result instanceof WebElement) return element((WebElement) result, loc);
+			if (result instanceof List) {
+				List<?> list = (List<?>) result;
+				List<Object> wrapped = new ArrayList<Object>(list.size());
+				for (Object o : list) wrapped.add(o instanceof WebElement ? element((WebElement) o, loc) : o);
+				return wrapped;
+			}
+			if (isNested(m.getReturnType())) return new Handler(result, nestedPrefix, null, root).proxy;
+			return result;
+		}
+
+		private Object element(WebElement element, String loc) {
+			return isInstrumented(element) ? element : new Handler(element, "element.", loc, root).proxy;
+		}
+	}
+
+	/**
+	 * WebDriverの内部インターフェイスを返すだけで、ブラウザへのコマンドを送信しないメソッドかどうかを返します。(manage(), navigate()等)
+	 */
+	private static boolean isAccessor(Method m, Object[] args) {
+		return (args == null || args.length == 0) && m.getReturnType().isInterface() && m.getReturnType().getDeclaringClass() == WebDriver.class;
+	}
+
+	/**
+	 * 戻り値を計測の対象とするインターフェイスかどうかを返します。
+	 */
+	private static boolean isNested(Class<?> type) {
+		return type.isInterface() && (type.getDeclaringClass() == WebDriver.class || type == Alert.class);
+	}
+
+	private static Object[] unwrapArgs(Object[] args) {
+		if (args == null) return null;
+		Object[] unwrapped = args.clone();
+		for (int i = 0; i < unwrapped.length; i++) {
+			if (unwrapped[i] instanceof Object[]) unwrapped[i] = unwrapArgs((Object[]) unwrapped[i]);
+			else unwrapped[i] = target(unwrapped[i]);
+		}
+		return unwrapped;
+	}
+
+	/**
+	 * クラスとスーパークラスが実装しているpublicなインターフェイスを返します。
+	 */
+	private static Class<?>[] interfaces(Class<?> cls, Class<?> wrapper) {
+		Set<Class<?>> set = new LinkedHashSet<Class<?>>();
+		for (Class<?> c = cls; c != null; c = c.getSuperclass()) collect(c, set);
+		if (wrapper != null && !wrapper.isAssignableFrom(cls)) set.add(wrapper);
+		return set.toArray(new Class<?>[set.size()]);
+	}
+
+	private static void collect(Class<?> c, Set<Class<?>> set) {
+		for (Class<?> i : c.getInterfaces()) {
+			if (Modifier.isPublic(i.getModifiers())) set.add(i);
+			collect(i, set);
+		}
+	}
+}
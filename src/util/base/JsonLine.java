@@ -0,0 +1,83 @@
+package util.base;
+
+/**
+ * 1行のJSONオブジェクトを組み立てるためのクラスです。<br />
+ * JSON Lines形式のログ出力に使用します。
+ *
+ * <pre>
+ * new JsonLine().put("phase", "Failed").put("durationNanos", 1200L).toString();
+ * // {"phase":"Failed","durationNanos":1200}
+ * </pre>
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class JsonLine {
+	private final StringBuilder sb = new StringBuilder("{");
+
+	/**
+	 * 文字列の値を追加します。値がnullの場合はnullが出力されます。
+	 *
+	 * @param key キー
+	 * @param value 値
+	 * @return JsonLineオブジェクト自身。
+	 */
+	public JsonLine put(String key, String value) {
+		key(key);
+		if (value == null) sb.append("null");
+		else quote(value);
+		return this;
+	}
+
+	/**
+	 * 数値の値を追加します。
+	 *
+	 * @param key キー
+	 * @param value 値
+	 * @return JsonLineオブジェクト自身。
+	 */
+	public JsonLine put(String key, long value) {
+		key(key);
+		sb.append(value);
+		return this;
+	}
+
+	/**
+	 * 数値の値を追加します。
+	 *
+	 * @param key キー
+	 * @param value 値
+	 * @return JsonLineオブジェクト自身。
+	 */
+	public JsonLine put(String key, double value) {
+		key(key);
+		sb.append(value);
+		return this;
+	}
+
+	@Override
+	public String toString() { return sb.toString() + "}"; }
+
+	private void key(String key) {
+		if (sb.length() > 1) sb.append(',');
+		quote(key);
+		sb.append(':');
+	}
+
+	private void quote(String s) {
+		sb.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '"': sb.append("\\\""); break;
+				case '\\': sb.append("\\\\"); break;
+				case '\n': sb.append("\\n"); break;
+				case '\r': sb.append("\\r"); break;
+				case '\t': sb.append("\\t"); break;
+				default:
+					if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+					else sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+}
@@ -0,0 +1,200 @@
+package util.base;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ログファイルへの書き込みをバックグラウンドのスレッドでまとめて行うクラスです。<br />
+ * 書き込み要求はキューに格納され、専用のスレッドが複数行をまとめて書き込みます。
+ * ログファイルはファイルごとに開いたままにし、同時に開くファイル数が{@value #MAX_OPEN_FILES}を超えた場合は最も長く使用していないファイルを閉じます。<br />
+ * キューに格納された行はflushメソッドの呼び出し時とJVMの終了時に書き出されます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class LogWriter {
+	/** キューに格納できる行数の上限です。上限に達した場合、書き込み要求は空きができるまで待ちます。 */
+	private static final int QUEUE_CAPACITY = 64 * 1024;
+	/** 1回にまとめて書き込む行数の上限です。 */
+	private static final int BATCH_SIZE = 1024;
+	/** 同時に開いておくログファイル数の上限です。 */
+	private static final int MAX_OPEN_FILES = 16;
+	/** flushメソッドで書き出しを待つ時間の上限(ミリ秒)です。 */
+	private static final long FLUSH_TIMEOUT_MILLIS = 30 * 1000L;
+
+	private static final LogWriter INSTANCE = new LogWriter();
+
+	private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<Entry>(QUEUE_CAPACITY);
+	/** 開いているログファイル。最近使用した順に並びます。書き込みスレッドからのみ参照されます。 */
+	private final Map<File, Writer> files = new LinkedHashMap<File, Writer>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File, Writer> eldest) {
+			if (size() <= MAX_OPEN_FILES) return false;
+			close(eldest.getValue());
+			return true;
+		}
+	};
+
+	/**
+	 * 書き込み要求です。latchが設定されている場合は、それまでの要求を書き出した後に通知するための要求です。
+	 * lineとlatchがnullの場合は、ファイルを閉じて削除するための要求です。
+	 */
+	private static final class Entry {
+		final File dir;
+		final String fileName;
+		final String line;
+		final CountDownLatch latch;
+		Entry(File dir, String fileName, String line, CountDownLatch latch) {
+			this.dir = dir;
+			this.fileName = fileName;
+			this.line = line;
+			this.latch = latch;
+		}
+	}
+
+	private LogWriter() {
+		Thread worker = new DaemonThreadFactory("LogWriter").newThread(new Runnable() {
+			@Override public void run() { drain(); }
+		});
+		worker.start();
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override public void run() { flush(); }
+		});
+	}
+
+	/**
+	 * LogWriterのInstanceを返します。
+	 *
+	 * @return LogWriter型オブジェクト。
+	 */
+	public static LogWriter getInstance() { return INSTANCE; }
+
+	/**
+	 * ログファイルに書き込む行をキューに追加します。
+	 *
+	 * @param dir ログファイルを保存するディレクトリ。存在しない場合は新規作成されます。
+	 * @param fileName ログファイル名。
+	 * @param line 書き込む行。
+	 */
+	public void println(File dir, String fileName, String line) {
+		enqueue(new Entry(dir, fileName, line, null));
+	}
+
+	/**
+	 * ログファイルを削除する要求をキューに追加します。<br />
+	 * 書き込みスレッドがファイルを開いている場合は閉じてから削除します。
+	 * このメソッドの呼び出し前にキューに追加された行は削除される前に書き込まれ、呼び出し後に追加された行は新しいファイルに書き込まれます。
+	 *
+	 * @param dir ログファイルを保存するディレクトリ。
+	 * @param fileName ログファイル名。
+	 */
+	public void delete(File dir, String fileName) {
+		enqueue(new Entry(dir, fileName, null, null));
+	}
+
+	/**
+	 * このメソッドの呼び出し前にキューに追加された行がファイルに書き出されるまで待ちます。<br />
+	 * 書き出しが{@value #FLUSH_TIMEOUT_MILLIS}ミリ秒以内に終わらない場合は待つのをやめます。
+	 *
+	 * @return 時間内に書き出しが終わった場合はtrue。
+	 */
+	public boolean flush() {
+		CountDownLatch latch = new CountDownLatch(1);
+		enqueue(new Entry(null, null, null, latch));
+		try {
+			if (latch.await(FLUSH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) return true;
+			System.out.println("LogWriter: flush timed out after " + FLUSH_TIMEOUT_MILLIS + "ms.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	private void enqueue(Entry entry) {
+		try {
+			queue.put(entry);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * キューから書き込み要求を取り出してファイルに書き込みます。書き込みスレッドで実行されます。<br />
+	 * 書き込みスレッドは1つだけのため、1件の書き込みで発生した例外は出力して次の要求を続けます。
+	 */
+	private void drain() {
+		List<Entry> batch = new ArrayList<Entry>(BATCH_SIZE);
+		while (true) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				return;
+			}
+			queue.drainTo(batch, BATCH_SIZE - 1);
+			List<CountDownLatch> latches = new ArrayList<CountDownLatch>();
+			for (Entry entry : batch) {
+				if (entry.latch != null) {
+					latches.add(entry.latch);
+					continue;
+				}
+				try {
+					write(entry);
+				} catch (Throwable t) {
+					System.out.println(t);
+				}
+			}
+			batch.clear();
+			for (Writer writer : files.values()) {
+				try {
+					writer.flush();
+				} catch (Throwable t) {
+					System.out.println(t);
+				}
+			}
+			for (CountDownLatch latch : latches) latch.countDown();
+		}
+	}
+
+	private void write(Entry entry) {
+		File target = new File(entry.dir, entry.fileName);
+		if (entry.line == null) {
+			Writer writer = files.remove(target);
+			if (writer != null) close(writer);
+			target.delete();
+			return;
+		}
+		try {
+			Writer writer = files.get(target);
+			if (writer == null) {
+				entry.dir.mkdirs();
+				writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(target, true)));
+				files.put(target, writer);
+			}
+			writer.write(entry.line);
+			writer.write(System.getProperty("line.separator"));
+		} catch (IOException e) {
+			Writer writer = files.remove(target);
+			if (writer != null) close(writer);
+			System.out.println(e);
+		}
+	}
+
+	private static void close(Writer writer) {
+		try {
+			writer.close();
+		} catch (IOException e) {
+			System.out.println(e);
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package util.base;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * 保存先ディレクトリごとにスクリーンショットを格納するクラスです。<br />
+ * 格納した画像はディレクトリ内の {@value #INDEX_FILE_NAME} に1件1行で記録され、
+ * テスト名・取得日時・URLから画像ファイルを参照できます。<br />
+ * 差分モードでは、次のように変化のあった分だけを保存します。
+ * <ul>
+ * <li>保存済みの画像とバイト列が同一の場合は、画像を保存せずに保存済みの画像を参照します。(type: ref)</li>
+ * <li>同じURLで前回保存した画像と比べて変化した範囲が小さい場合は、変化した範囲を切り出して保存します。(type: delta)</li>
+ * <li>それ以外の場合は画像全体を保存します。(type: full)</li>
+ * </ul>
+ * deltaの画像は、baseの画像の x, y の位置に重ねることで元の画像になります。<br />
+ * 差分モードはシステムプロパティ screenshot.storage に delta を指定すると有効になります。
+ * 切り出して保存する範囲の面積の上限(画像全体に対する割合)は screenshot.delta.maxRatio で変更できます。
+ * 通常はScreenshotWriterの書き込みスレッドから呼び出されます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class ScreenshotStore {
+	/** 画像の索引ファイル名です。 */
+	public static final String INDEX_FILE_NAME = "screenshots.index.jsonl";
+	/** バイト列のハッシュ値を保持する件数の上限です。 */
+	private static final int MAX_HASHES = 10000;
+	/** URLごとの前回保存した画像を保持する件数の上限です。 */
+	private static final int MAX_KEYFRAMES = 16;
+
+	private final File dir;
+	private final boolean delta;
+	private final double maxDeltaRatio;
+	/** 画像全体を保存したファイルのハッシュ値とファイル名です。 */
+	private final Map<String, String> files = lru(MAX_HASHES);
+	/** URLごとの前回画像全体を保存したファイルです。 */
+	private final Map<String, Keyframe> keyframes = lru(MAX_KEYFRAMES);
+
+	/**
+	 * 画像全体を保存したファイルのファイル名と画像です。
+	 */
+	private static final class Keyframe {
+		final String fileName;
+		final BufferedImage image;
+		Keyframe(String fileName, BufferedImage image) { this.fileName = fileName; this.image = image; }
+	}
+
+	/**
+	 * @param dir 保存先ディレクトリ。
+	 * @param delta trueの場合は差分モードで格納します。
+	 * @param maxDeltaRatio 変化した範囲を切り出して保存する面積の上限(画像全体に対する割合)。
+	 */
+	public ScreenshotStore(File dir, boolean delta, double maxDeltaRatio) {
+		this.dir = dir;
+		this.delta = delta;
+		this.maxDeltaRatio = maxDeltaRatio;
+	}
+
+	/**
+	 * 画像を格納し、索引ファイルに記録します。
+	 *
+	 * @param takenAt 画像を取得した日時。
+	 * @param url 画像を取得したページのURL。
+	 * @param test 画像を取得したテストの名前。不明な場合はnull。
+	 * @param png PNG形式の画像のバイト列。
+	 */
+	public synchronized void store(Date takenAt, String url, String test, byte[] png) {
+		String hash = FixtureCache.hash(png);
+		String fileName = ScreenshotWriter.fileName(takenAt, url, ".png");
+		JsonLine json = new JsonLine()
+			.put("time", takenAt.getTime())
+			.put("test", test)
+			.put("url", url)
+			.put("hash", hash);
+
+		if (!delta) {
+			ScreenshotWriter.save(new File(dir, fileName), png);
+			index(json.put("type", "full").put("file", fileName));
+			return;
+		}
+
+		String existing = files.get(hash);
+		if (existing != null) {
+			index(json.put("type", "ref").put("file", existing));
+			return;
+		}
+
+		BufferedImage image = decode(png);
+		Keyframe base = image == null ? null : keyframes.get(url);
+		Rectangle changed = base == null ? null : diff(base.image, image);
+		if (changed != null && changed.isEmpty()) {
+			index(json.put("type", "ref").put("file", base.fileName));
+		} else if (changed != null && (double) changed.width * changed.height <= maxDeltaRatio * image.getWidth() * image.getHeight()) {
+			String deltaName = ScreenshotWriter.fileName(takenAt, url, ".delta.png");
+			try {
+				ImageIO.write(image.getSubimage(changed.x, changed.y, changed.width, changed.height), "png", new File(dir, deltaName));
+			} catch (IOException e) {
+				System.out.println(e);
+			}
+			index(json.put("type", "delta").put("file", deltaName).put("base", base.fileName)
+				.put("x", changed.x).put("y", changed.y).put("width", changed.width).put("height", changed.height));
+		} else {
+			ScreenshotWriter.save(new File(dir, fileName), png);
+			files.put(hash, fileName);
+			if (image != null) keyframes.put(url, new Keyframe(fileName, image));
+			index(json.put("type", "full").put("file", fileName));
+		}
+	}
+
+	/**
+	 * 2つの画像の変化した範囲を返します。
+	 *
+	 * @return 変化した範囲を囲む矩形。変化が無い場合は空の矩形。画像の大きさが異なる場合はnull。
+	 */
+	public static Rectangle diff(BufferedImage a, BufferedImage b) {
+		int w = a.getWidth(), h = a.getHeight();
+		if (w != b.getWidth() || h != b.getHeight()) return null;
+		int minX = w, minY = h, maxX = -1, maxY = -1;
+		int[] rowA = new int[w], rowB = new int[w];
+		for (int y = 0; y < h; y++) {
+			a.getRGB(0, y, w, 1, rowA, 0, w);
+			b.getRGB(0, y, w, 1, rowB, 0, w);
+			for (int x = 0; x < w; x++) {
+				if (rowA[x] == rowB[x]) continue;
+				if (x < minX) minX = x;
+				if (x > maxX) maxX = x;
+				if (y < minY) minY = y;
+				maxY = y;
+			}
+		}
+		if (maxX < 0) return new Rectangle();
+		return new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+	}
+
+	private void index(JsonLine json) { LogWriter.getInstance().println(dir, INDEX_FILE_NAME, json.toString()); }
+
+	private static BufferedImage decode(byte[] png) {
+		try {
+			return ImageIO.read(new ByteArrayInputStream(png));
+		} catch (IOException e) {
+			System.out.println(e);
+			return null;
+		}
+	}
+
+	private static <K, V> Map<K, V> lru(final int maxEntries) {
+		return new LinkedHashMap<K, V>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) { return size() > maxEntries; }
+		};
+	}
+}
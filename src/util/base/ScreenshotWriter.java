@@ -0,0 +1,177 @@
+package util.base;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * スクリーンショットの画像ファイルの書き込みをバックグラウンドのスレッドで行うクラスです。<br />
+ * テストのスレッドではブラウザから画像のバイト列を取得するだけで処理を戻し、
+ * ファイル名の決定と書き込みは専用のスレッドで行います。<br />
+ * 書き込み待ちの件数には上限があり、上限に達した場合は呼び出し元のスレッドで書き込みを行います。
+ * 書き込み待ちの画像はflushメソッドの呼び出し時とJVMの終了時に書き出されます。<br />
+ * スレッド数はシステムプロパティ screenshot.writerThreads 、
+ * 書き込み待ちの件数の上限は screenshot.queueCapacity で変更できます。<br />
+ * 画像は保存先ディレクトリごとの{@link util.base.ScreenshotStore ScreenshotStore}に格納され、
+ * 索引ファイルに記録されます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class ScreenshotWriter {
+	private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+		@Override protected SimpleDateFormat initialValue() { return new SimpleDateFormat("yyyyMMddHHmmssSSS"); }
+	};
+
+	private static final ScreenshotWriter INSTANCE = new ScreenshotWriter(
+		Integer.getInteger("screenshot.writerThreads", 2),
+		Integer.getInteger("screenshot.queueCapacity", 16)
+	);
+
+	private final ThreadPoolExecutor executor;
+	/** 保存先ディレクトリごとのScreenshotStoreです。 */
+	private final Map<File, ScreenshotStore> stores = new HashMap<File, ScreenshotStore>();
+	private final boolean delta = "delta".equals(System.getProperty("screenshot.storage"));
+	private final double maxDeltaRatio = Double.parseDouble(System.getProperty("screenshot.delta.maxRatio", "0.5"));
+	/** 書き込み待ちと書き込み中の件数です。 */
+	private int pending;
+
+	private ScreenshotWriter(int threads, int queueCapacity) {
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<Runnable>(queueCapacity),
+			new DaemonThreadFactory("ScreenshotWriter"),
+			new ThreadPoolExecutor.CallerRunsPolicy());
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			// 索引ファイルの行は画像の書き込み後にLogWriterに渡されるため、画像の書き込みを待ってから書き出す。
+			@Override public void run() { flush(); LogWriter.getInstance().flush(); }
+		});
+	}
+
+	/**
+	 * ScreenshotWriterのInstanceを返します。
+	 *
+	 * @return ScreenshotWriter型オブジェクト。
+	 */
+	public static ScreenshotWriter getInstance() { return INSTANCE; }
+
+	/**
+	 * 画像の書き込みを要求します。<br />
+	 * ファイル名は 取得日時_URL.png となります。
+	 *
+	 * @param dir 保存先ディレクトリ。存在しない場合は新規作成されます。
+	 * @param takenAt 画像を取得した日時。
+	 * @param url 画像を取得したページのURL。
+	 * @param png PNG形式の画像のバイト列。
+	 */
+	public void write(File dir, Date takenAt, String url, byte[] png) { writeScreenshot(dir, takenAt, url, null, png); }
+
+	/**
+	 * テスト名を指定して画像の書き込みを要求します。テスト名は索引ファイルに記録されます。
+	 *
+	 * @param dir 保存先ディレクトリ。存在しない場合は新規作成されます。
+	 * @param takenAt 画像を取得した日時。
+	 * @param url 画像を取得したページのURL。
+	 * @param test 画像を取得したテストの名前。不明な場合はnull。
+	 * @param png PNG形式の画像のバイト列。
+	 */
+	public void writeScreenshot(final File dir, final Date takenAt, final String url, final String test, final byte[] png) {
+		submit(new Runnable() {
+			@Override public void run() { store(dir).store(takenAt, url, test, png); }
+		});
+	}
+
+	/**
+	 * ページから取得したファイルの書き込みを要求します。<br />
+	 * ファイル名は 取得日時_URL.拡張子 となります。
+	 *
+	 * @param dir 保存先ディレクトリ。存在しない場合は新規作成されます。
+	 * @param takenAt ファイルの内容を取得した日時。
+	 * @param url ファイルの内容を取得したページのURL。
+	 * @param ext ファイルの拡張子。.png、.html等。
+	 * @param bytes ファイルの内容。
+	 */
+	public void write(final File dir, final Date takenAt, final String url, final String ext, final byte[] bytes) {
+		submit(new Runnable() {
+			@Override public void run() { save(new File(dir, fileName(takenAt, url, ext)), bytes); }
+		});
+	}
+
+	private void submit(final Runnable task) {
+		synchronized (this) { pending++; }
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					task.run();
+				} finally {
+					done();
+				}
+			}
+		});
+	}
+
+	private ScreenshotStore store(File dir) {
+		synchronized (stores) {
+			ScreenshotStore store = stores.get(dir);
+			if (store == null) {
+				store = new ScreenshotStore(dir, delta, maxDeltaRatio);
+				stores.put(dir, store);
+			}
+			return store;
+		}
+	}
+
+	/**
+	 * このメソッドの呼び出し前に要求された画像がファイルに書き出されるまで待ちます。
+	 */
+	public void flush() {
+		synchronized (this) {
+			while (pending > 0) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * ファイル名を返します。
+	 *
+	 * @param takenAt ファイルの内容を取得した日時。
+	 * @param url ファイルの内容を取得したページのURL。
+	 * @param ext ファイルの拡張子。
+	 * @return 取得日時_URL.拡張子
+	 */
+	public static String fileName(Date takenAt, String url, String ext) {
+		return DATE_FORMAT.get().format(takenAt) + "_" + url.replaceAll("[\\/:*\\?\"<>\\|]", "_") + ext;
+	}
+
+	private synchronized void done() {
+		pending--;
+		if (pending == 0) notifyAll();
+	}
+
+	static void save(File file, byte[] bytes) {
+		try {
+			file.getParentFile().mkdirs();
+			OutputStream out = new FileOutputStream(file);
+			try {
+				out.write(bytes);
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			System.out.println(e);
+		}
+	}
+}
@@ -1,10 +1,20 @@
 package util.base;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.Point;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.Select;
@@ -27,6 +37,40 @@ public class Selector {
 	 * @see <a href="http://selenium.googlecode.com/git/docs/api/java/org/openqa/selenium/WebDriver.html" target="_blank">WebDriver</a>
 	 */
 	protected WebDriver driver;
+	/**
+	 * trueの場合、取得したWebElementをメソッドチェーンの間で再利用します。
+	 *
+	 * @see util.base.Selector#cached()
+	 */
+	private boolean cached;
+	/**
+	 * キャッシュされたWebElementを格納します。
+	 */
+	private WebElement element;
+	/**
+	 * elementを取得した時点のページ遷移の世代番号を格納します。
+	 */
+	private long elementGeneration;
+	/**
+	 * このSelectorでWebDriverに要素の検索を要求した回数を格納します。
+	 */
+	private int lookupCount;
+	/**
+	 * count・isElementPresentメソッドで要素の出現を待つ時間(ミリ秒)を格納します。
+	 */
+	private long presenceTimeoutMillis = Long.getLong("selector.presenceTimeoutMillis", 0L);
+	/**
+	 * 全てのSelectorでWebDriverに要素の検索を要求した回数を格納します。
+	 */
+	private static final AtomicLong totalLookupCount = new AtomicLong();
+	/**
+	 * WebDriverごとのページ遷移の世代番号を格納します。
+	 */
+	private static final Map<WebDriver, AtomicLong> generations = Collections.synchronizedMap(new WeakHashMap<WebDriver, AtomicLong>());
+	/**
+	 * WebDriverごとにimplicitlyWaitメソッドで設定した待機時間(ミリ秒)を格納します。
+	 */
+	private static final Map<WebDriver, Long> implicitWaits = Collections.synchronizedMap(new WeakHashMap<WebDriver, Long>());
 
 	/**
 	 * @param selector {@link util.base.Selector#selector}
@@ -42,14 +86,14 @@ public class Selector {
 	 *
 	 * @return 取得された要素。
 	 */
-	public WebElement getElement() { return driver.findElement(By.cssSelector(selector)); }
+	public WebElement getElement() { countLookup(); return driver.findElement(By.cssSelector(selector)); }
 
 	/**
 	 * selector文字列から取得可能なWebElementのリストを返します。
 	 *
 	 * @return 取得された要素のリスト。
 	 */
-	public List<WebElement> getElements() { return driver.findElements(By.cssSelector(selector)); }
+	public List<WebElement> getElements() { countLookup(); return driver.findElements(By.cssSelector(selector)); }
 
 	/**
 	 * selector文字列から取得した要素リスト内の指定された位置にある要素を返します。
@@ -66,114 +110,413 @@ public class Selector {
 	 * @return Selectオブジェクト
 	 * @see <a href="http://selenium.googlecode.com/git/docs/api/java/org/openqa/selenium/support/ui/Select.html" target="_blank">Select</a>
 	 */
-	public Select asSelect() { return new Select(el()); }
+	public Select asSelect() {
+		return apply(new Operation<Select>() { @Override public Select on(WebElement e) { return new Select(e); } });
+	}
+
+	/**
+	 * selector文字列にマッチした要素の数を返します。<br />
+	 * 要素数はjavascriptで取得するため、WebDriverのimplicitlyWaitの影響を受けません。
+	 * 要素が存在しない場合は{@link util.base.Selector#withPresenceTimeout 存在確認の待機時間}だけ要素の出現を待ちます。
+	 *
+	 * @return 要素数。
+	 */
+	public int count() { return count(presenceTimeoutMillis); }
 
 	/**
-	 * selector文字列にマッチした要素の数を返します。
+	 * selector文字列にマッチした要素の数を返します。<br />
+	 * 要素が存在しない場合は指定された時間を上限として要素の出現を待ちます。
 	 *
+	 * @param timeoutMillis 要素の出現を待つ時間の上限(ミリ秒)。0の場合は待機しません。
 	 * @return 要素数。
 	 */
-	public int count() { return getElements().size(); }
+	public int count(long timeoutMillis) {
+		Integer n = Wait.upTo(timeoutMillis).poll(new Wait.Condition<Integer>() {
+			@Override public Integer check() { int c = scriptCount(); return c > 0 ? c : null; }
+		});
+		return n == null ? 0 : n;
+	}
 
 	/**
-	 * selector文字列にマッチした要素が存在するかどうかを返します。
+	 * selector文字列にマッチした要素が存在するかどうかを返します。<br />
+	 * 要素が存在しない場合は{@link util.base.Selector#withPresenceTimeout 存在確認の待機時間}だけ要素の出現を待ちます。
 	 *
 	 * @return 要素の存在を表す真偽値。
 	 */
 	public boolean isElementPresent() { return count() != 0; }
 
+	/**
+	 * selector文字列にマッチした要素が存在するかどうかを返します。<br />
+	 * 要素が存在しない場合は指定された時間を上限として要素の出現を待ちます。
+	 *
+	 * @param timeoutMillis 要素の出現を待つ時間の上限(ミリ秒)。0の場合は待機しません。
+	 * @return 要素の存在を表す真偽値。
+	 */
+	public boolean isElementPresent(long timeoutMillis) { return count(timeoutMillis) != 0; }
+
+	/**
+	 * count・isElementPresentメソッドで要素の出現を待つ時間を設定します。<br />
+	 * 初期値はシステムプロパティ selector.presenceTimeoutMillis の値(未指定の場合は0)です。<br />
+	 * Selectorオブジェクト自身を返すのでメソッドチェーンを構築できます。
+	 *
+	 * @param timeoutMillis 要素の出現を待つ時間の上限(ミリ秒)。
+	 */
+	public Selector withPresenceTimeout(long timeoutMillis) { presenceTimeoutMillis = timeoutMillis; return this; }
+
+	/**
+	 * selector文字列にマッチした要素が存在するまで待機します。<br />
+	 * 要素の有無はjavascriptで判定するため、WebDriverのimplicitlyWaitの影響を受けません。<br />
+	 * Selectorオブジェクト自身を返すのでメソッドチェーンを構築できます。
+	 *
+	 * @param timeoutMillis 待機時間の上限(ミリ秒)。
+	 * @throws TimeoutException 待機時間の上限までに要素が存在しなかった場合。
+	 */
+	public Selector waitUntilPresent(long timeoutMillis) { return waitUntilCount(1, timeoutMillis); }
+
+	/**
+	 * selector文字列にマッチした要素の数が指定された数以上になるまで待機します。<br />
+	 * Selectorオブジェクト自身を返すのでメソッドチェーンを構築できます。
+	 *
+	 * @param n 要素数。
+	 * @param timeoutMillis 待機時間の上限(ミリ秒)。
+	 * @throws TimeoutException 待機時間の上限までに要素数が指定された数に達しなかった場合。
+	 */
+	public Selector waitUntilCount(final int n, long timeoutMillis) {
+		Wait.upTo(timeoutMillis).until(new Wait.Condition<Boolean>() {
+			@Override public Boolean check() { return scriptCount() >= n; }
+			@Override public String toString() { return selector + " count to reach " + n; }
+		});
+		return this;
+	}
+
+	/**
+	 * selector文字列にマッチした要素が表示されるまで待機します。<br />
+	 * Selectorオブジェクト自身を返すのでメソッドチェーンを構築できます。
+	 *
+	 * @param timeoutMillis 待機時間の上限(ミリ秒)。
+	 * @throws TimeoutException 待機時間の上限までに要素が表示されなかった場合。
+	 */
+	public Selector waitUntilVisible(long timeoutMillis) {
+		Wait.upTo(timeoutMillis).until(new Wait.Condition<Boolean>() {
+			@Override public Boolean check() { return scriptCount() > 0 && getElement().isDisplayed(); }
+			@Override public String toString() { return selector + " to be visible"; }
+		});
+		return this;
+	}
+
+	/**
+	 * selector文字列にマッチした要素の表示テキストが正規表現にマッチするまで待機します。<br />
+	 * Selectorオブジェクト自身を返すのでメソッドチェーンを構築できます。
+	 *
+	 * @param regex 正規表現。表示テキストの一部にマッチすれば条件を満たします。
+	 * @param timeoutMillis 待機時間の上限(ミリ秒)。
+	 * @throws TimeoutException 待機時間の上限までに表示テキストがマッチしなかった場合。
+	 */
+	public Selector waitUntilTextMatches(String regex, long timeoutMillis) {
+		final Pattern pattern = Pattern.compile(regex);
+		Wait.upTo(timeoutMillis).until(new Wait.Condition<Boolean>() {
+			@Override public Boolean check() { return scriptCount() > 0 && pattern.matcher(getElement().getText()).find(); }
+			@Override public String toString() { return selector + " text to match " + pattern; }
+		});
+		return this;
+	}
+
+	/**
+	 * selector文字列にマッチした要素の数をjavascriptで取得します。<br />
+	 * WebDriverのimplicitlyWaitの影響を受けないため、要素が存在しない場合もすぐに0を返します。<br />
+	 * javascriptを実行できないWebDriverの場合は、implicitlyWaitを一時的に0にしてfindElementsで取得します。
+	 * 取得後のimplicitlyWaitは{@link #implicitlyWait implicitlyWait}メソッドで設定した値に戻します。
+	 *
+	 * @return 要素数。
+	 */
+	int scriptCount() {
+		if (driver instanceof JavascriptExecutor) {
+			try {
+				Object n = ((JavascriptExecutor) driver).executeScript("return document.querySelectorAll(arguments[0]).length;", selector);
+				return ((Number) n).intValue();
+			} catch (UnsupportedOperationException e) {
+				// javascriptが無効なWebDriverの場合はfindElementsで取得する。
+			}
+		}
+		Long restore = implicitWaits.get(driver);
+		driver.manage().timeouts().implicitlyWait(0, TimeUnit.MILLISECONDS);
+		try {
+			return getElements().size();
+		} finally {
+			driver.manage().timeouts().implicitlyWait(restore == null ? 0 : restore, TimeUnit.MILLISECONDS);
+		}
+	}
+
 	/**
 	 * 要素のvalue属性のString値を取得します。
 	 */
-	public String getValue() { return el().getAttribute("value"); }
+	public String getValue() { return getAttribute("value"); }
 
 	/**
 	 * Click this element.<br />
 	 * Selectorオブジェクト自身を返すのでメソッドチェーンを構築できます。
 	 */
-	public Selector click() { el().click(); return this; }
+	public Selector click() {
+		apply(new Operation<Void>() { @Override public Void on(WebElement e) { e.click(); return null; } });
+		return this;
+	}
 
 	/**
 	 * If this current element is a form, or an element within a form, then this will be submitted to the remote server.<br />
 	 * Selectorオブジェクト自身を返すのでメソッドチェーンを構築できます。
 	 */
-	public Selector submit() { el().submit(); return this; }
+	public Selector submit() {
+		apply(new Operation<Void>() { @Override public Void on(WebElement e) { e.submit(); return null; } });
+		return this;
+	}
 
 	/**
 	 * Use this method to simulate typing into an element, which may set its value.<br />
 	 * Selectorオブジェクト自身を返すのでメソッドチェーンを構築できます。
 	 */
-	public Selector sendKeys(String s) { el().sendKeys(s); return this; }
+	public Selector sendKeys(final String s) {
+		apply(new Operation<Void>() { @Override public Void on(WebElement e) { e.sendKeys(s); return null; } });
+		return this;
+	}
 
 	/**
 	 * If this element is a text entry element, this will clear the value.<br />
 	 * Selectorオブジェクト自身を返すのでメソッドチェーンを構築できます。
 	 */
-	public Selector clear() { el().clear(); return this; }
+	public Selector clear() {
+		apply(new Operation<Void>() { @Override public Void on(WebElement e) { e.clear(); return null; } });
+		return this;
+	}
 
 	/**
 	 * Get the tag name of this element.
 	 */
-	public String getTagName() { return el().getTagName(); }
+	public String getTagName() {
+		return apply(new Operation<String>() { @Override public String on(WebElement e) { return e.getTagName(); } });
+	}
 
 	/**
 	 * Get the value of a the given attribute of the element.
 	 */
-	public String getAttribute(String paramString) { return el().getAttribute(paramString); }
+	public String getAttribute(final String paramString) {
+		return apply(new Operation<String>() { @Override public String on(WebElement e) { return e.getAttribute(paramString); } });
+	}
 
 	/**
 	 * Determine whether or not this element is selected or not.
 	 */
-	public Boolean isSelected() { return el().isSelected(); }
+	public Boolean isSelected() {
+		return apply(new Operation<Boolean>() { @Override public Boolean on(WebElement e) { return e.isSelected(); } });
+	}
 
 	/**
 	 * Is the element currently enabled or not? This will generally return true for everything but disabled input elements.
 	 */
-	public Boolean isEnabled() { return el().isEnabled(); }
+	public Boolean isEnabled() {
+		return apply(new Operation<Boolean>() { @Override public Boolean on(WebElement e) { return e.isEnabled(); } });
+	}
 
 	/**
 	 * Get the visible (i.e.
 	 */
-	public String getText() { return el().getText(); }
+	public String getText() {
+		return apply(new Operation<String>() { @Override public String on(WebElement e) { return e.getText(); } });
+	}
 
 	/**
 	 * Find the first WebElement using the given method.
 	 */
-	public WebElement findElement(String selector) { return el().findElement(By.cssSelector(selector)); }
+	public WebElement findElement(final String selector) {
+		return apply(new Operation<WebElement>() { @Override public WebElement on(WebElement e) { return e.findElement(By.cssSelector(selector)); } });
+	}
 
 	/**
 	 * Find all elements within the current context using the given mechanism.
 	 */
-	public List<WebElement> findElements(String selector) { return el().findElements(By.cssSelector(selector)); }
+	public List<WebElement> findElements(final String selector) {
+		return apply(new Operation<List<WebElement>>() { @Override public List<WebElement> on(WebElement e) { return e.findElements(By.cssSelector(selector)); } });
+	}
 
 	/**
 	 * Is this element displayed or not? This method avoids the problem of having to parse an element's "style" attribute.
 	 */
-	public Boolean isDisplayed() { return el().isDisplayed(); }
+	public Boolean isDisplayed() {
+		return apply(new Operation<Boolean>() { @Override public Boolean on(WebElement e) { return e.isDisplayed(); } });
+	}
 
 	/**
 	 * Where on the page is the top left-hand corner of the rendered element?
 	 */
-	public Point getLocation() { return el().getLocation(); }
+	public Point getLocation() {
+		return apply(new Operation<Point>() { @Override public Point on(WebElement e) { return e.getLocation(); } });
+	}
 
 	/**
 	 * What is the width and height of the rendered element?
 	 */
-	public Dimension getSize() { return el().getSize(); }
+	public Dimension getSize() {
+		return apply(new Operation<Dimension>() { @Override public Dimension on(WebElement e) { return e.getSize(); } });
+	}
 
 	/**
 	 * Get the value of a given CSS property.
 	 */
-	public String getCssValue(String paramString) { return el().getCssValue(paramString); }
+	public String getCssValue(final String paramString) {
+		return apply(new Operation<String>() { @Override public String on(WebElement e) { return e.getCssValue(paramString); } });
+	}
+
+	/**
+	 * selector文字列にマッチした最初の要素のプロパティを1回のjavascript実行でまとめて取得します。<br />
+	 * 複数のgetterを呼び出す場合に比べて、WebDriverとの通信回数を減らすことができます。
+	 *
+	 * @param properties 取得するプロパティ。省略した場合は全てのプロパティを取得します。
+	 * @return 取得したプロパティを格納するElementSnapshotオブジェクト。
+	 * @throws NoSuchElementException マッチした要素が無い場合。
+	 */
+	public ElementSnapshot snapshot(ElementSnapshot.Property... properties) {
+		return snapshot(new String[0], new String[0], properties);
+	}
+
+	/**
+	 * selector文字列にマッチした最初の要素のプロパティ・属性・CSSプロパティを1回のjavascript実行でまとめて取得します。
+	 *
+	 * @param attributes 取得する属性名の配列。
+	 * @param cssProperties 取得するCSSプロパティ名の配列。
+	 * @param properties 取得するプロパティ。省略した場合は全てのプロパティを取得します。
+	 * @return 取得したプロパティを格納するElementSnapshotオブジェクト。
+	 * @throws NoSuchElementException マッチした要素が無い場合。
+	 */
+	public ElementSnapshot snapshot(String[] attributes, String[] cssProperties, ElementSnapshot.Property... properties) {
+		List<ElementSnapshot> snapshots = ElementSnapshot.query((JavascriptExecutor) driver, selector, false, attributes, cssProperties, properties);
+		if (snapshots.isEmpty()) throw new NoSuchElementException("Unable to locate element: " + selector);
+		return snapshots.get(0);
+	}
+
+	/**
+	 * selector文字列にマッチした全ての要素のプロパティを1回のjavascript実行でまとめて取得します。
+	 *
+	 * @param properties 取得するプロパティ。省略した場合は全てのプロパティを取得します。
+	 * @return 要素ごとのElementSnapshotオブジェクトのリスト。マッチした要素が無い場合は空のリスト。
+	 */
+	public List<ElementSnapshot> snapshotAll(ElementSnapshot.Property... properties) {
+		return snapshotAll(new String[0], new String[0], properties);
+	}
+
+	/**
+	 * selector文字列にマッチした全ての要素のプロパティ・属性・CSSプロパティを1回のjavascript実行でまとめて取得します。
+	 *
+	 * @param attributes 取得する属性名の配列。
+	 * @param cssProperties 取得するCSSプロパティ名の配列。
+	 * @param properties 取得するプロパティ。省略した場合は全てのプロパティを取得します。
+	 * @return 要素ごとのElementSnapshotオブジェクトのリスト。マッチした要素が無い場合は空のリスト。
+	 */
+	public List<ElementSnapshot> snapshotAll(String[] attributes, String[] cssProperties, ElementSnapshot.Property... properties) {
+		return ElementSnapshot.query((JavascriptExecutor) driver, selector, true, attributes, cssProperties, properties);
+	}
 
 	@Override
 	public String toString() { return selector; }
 
 	/**
-	 * getElementの省略形です。
+	 * 取得したWebElementをキャッシュして、以降のメソッド呼び出しで再利用するように設定します。<br />
+	 * キャッシュされたWebElementは、StaleElementReferenceExceptionが発生した場合と
+	 * {@link util.base.Selector#invalidate invalidate}メソッドでページ遷移が通知された場合に再取得されます。
+	 * SelectorはWebDriverのget・navigate等のページ遷移を検知しないため、
+	 * 遷移後も同じ要素が残るページ(一部だけを書き換えるページ等)で最新の要素を取得する場合は、呼び出し元でinvalidateメソッドを呼び出す必要があります。
+	 * WebDriverPoolはセッションの返却時にinvalidateメソッドを呼び出します。<br />
+	 * Selectorオブジェクト自身を返すのでメソッドチェーンを構築できます。
+	 *
+	 * <pre>
+	 * $("#q").cached().clear().sendKeys("a").submit(); // 要素の検索は1回だけ
+	 * </pre>
+	 */
+	public Selector cached() { cached = true; return this; }
+
+	/**
+	 * このSelectorでWebDriverに要素の検索を要求した回数を返します。
+	 */
+	public int getLookupCount() { return lookupCount; }
+
+	/**
+	 * 全てのSelectorでWebDriverに要素の検索を要求した回数を返します。
+	 */
+	public static long getTotalLookupCount() { return totalLookupCount.get(); }
+
+	/**
+	 * WebDriverのimplicitlyWaitを設定し、設定した値を記録します。<br />
+	 * javascriptを実行できないWebDriverで要素数を取得する際は、implicitlyWaitを一時的に0にした後でこの値に戻します。
+	 * WebDriverからは設定値を取得できないため、implicitlyWaitはこのメソッドで設定してください。
+	 *
+	 * @param driver 設定するWebDriver。
+	 * @param millis 待機時間(ミリ秒)。
+	 */
+	public static void implicitlyWait(WebDriver driver, long millis) {
+		driver.manage().timeouts().implicitlyWait(millis, TimeUnit.MILLISECONDS);
+		implicitWaits.put(driver, millis);
+	}
+
+	/**
+	 * ページ遷移を通知し、指定されたWebDriverから取得したキャッシュ済みのWebElementを無効にします。
+	 *
+	 * @param driver ページ遷移したWebDriver。
+	 */
+	public static void invalidate(WebDriver driver) { generation(driver).incrementAndGet(); }
+
+	/**
+	 * getElementの省略形です。<br />
+	 * キャッシュが有効な場合は、キャッシュされたWebElementを返します。
 	 *
 	 * @return <a href="http://selenium.googlecode.com/git/docs/api/java/org/openqa/selenium/WebElement.html" target="_blank">WebElement</a>
 	 */
-	private WebElement el(){ return getElement(); }
+	private WebElement el(){
+		if (!cached) return getElement();
+		long current = generation(driver).get();
+		if (element == null || elementGeneration != current) {
+			element = getElement();
+			elementGeneration = current;
+		}
+		return element;
+	}
+
+	/**
+	 * WebElementに対する操作です。
+	 */
+	private interface Operation<T> {
+		T on(WebElement e);
+	}
+
+	/**
+	 * 要素を取得して操作を実行します。<br />
+	 * キャッシュされたWebElementが無効になっていた場合(StaleElementReferenceException)は、WebElementを再取得して1回だけ再実行します。
+	 * キャッシュが無効な場合は例外をそのまま送出します。
+	 *
+	 * @param op 実行する操作。
+	 * @return 操作の結果。
+	 */
+	private <T> T apply(Operation<T> op) {
+		try {
+			return op.on(el());
+		} catch (StaleElementReferenceException e) {
+			if (!cached) throw e;
+			element = null;
+			return op.on(el());
+		}
+	}
+
+	private void countLookup() {
+		lookupCount++;
+		totalLookupCount.incrementAndGet();
+	}
+
+	private static AtomicLong generation(WebDriver driver) {
+		synchronized (generations) {
+			AtomicLong generation = generations.get(driver);
+			if (generation == null) {
+				generation = new AtomicLong();
+				generations.put(driver, generation);
+			}
+			return generation;
+		}
+	}
 
 }
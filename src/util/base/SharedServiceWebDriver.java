@@ -0,0 +1,33 @@
+package util.base;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+/**
+ * 起動済みのDriverService(chromedriver等のサーバープロセス)に接続するWebDriverです。<br />
+ * ChromeDriver等はquitメソッドでDriverServiceを終了するため、セッションごとにサーバープロセスを起動することになります。
+ * このクラスはquitメソッドでセッションのみを終了し、DriverServiceを複数のセッションで共有します。
+ * DriverServiceの終了は{@link util.base.WebDriverFactory WebDriverFactory}がJVMの終了時に行います。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class SharedServiceWebDriver extends RemoteWebDriver implements TakesScreenshot {
+
+	/**
+	 * @param service 起動済みのDriverService。
+	 * @param capabilities ブラウザの起動時の設定。
+	 */
+	public SharedServiceWebDriver(DriverService service, Capabilities capabilities) {
+		super(service.getUrl(), capabilities);
+	}
+
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) {
+		String base64 = (String) execute(DriverCommand.SCREENSHOT).getValue();
+		return target.convertFromBase64Png(base64);
+	}
+}
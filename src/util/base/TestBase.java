@@ -1,15 +1,14 @@
 package util.base;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.After;
+import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.rules.TestRule;
@@ -40,6 +39,48 @@ public abstract class TestBase {
 	 */
 	protected JavascriptExecutor jsx;
 	protected String baseUrl;
+	/**
+	 * setUpメソッドで生成するWebDriverの種類を指定します。
+	 */
+	protected WebDriverFactory.Driver driverType = WebDriverFactory.Driver.FIREFOX;
+	/**
+	 * setUpメソッドで生成するWebDriverの起動時の設定を指定します。既定値はシステムプロパティ webdriver.profile の値です。<br />
+	 * 実装クラスでこの変数の値を{@link util.base.DriverProfile#FAST DriverProfile.FAST}等にOverrideすることで、
+	 * ヘッドレスモード・画像等の読み込みの無効化によりブラウザの起動と画面の表示を速くすることができます。
+	 * ヘッドレスモードはChromeのみ対応しているため、driverTypeがFIREFOXの場合はヘッドレスモードではないプロファイルを指定します。
+	 *
+	 * @see util.base.DriverProfile
+	 */
+	protected DriverProfile driverProfile = DriverProfile.fromSystemProperties();
+	/**
+	 * trueの場合、WebDriverをテストごとに起動・終了せずにセッションプールから借りて返却します。<br />
+	 * 実装クラスでこの変数の値をOverrideすることで、起動済みのブラウザを再利用することができます。
+	 *
+	 * @see util.base.WebDriverPool
+	 */
+	protected boolean usePooledDriver = false;
+	/**
+	 * setUpメソッドで設定するWebDriverのimplicitlyWaitの時間(ミリ秒)を指定します。<br />
+	 * 0を指定した場合、存在しない要素の検索はすぐに失敗します。
+	 * 要素の出現を待つ場合は{@link util.base.Selector#waitUntilPresent waitUntilPresent}等のメソッドを使用します。
+	 */
+	protected long implicitWaitMillis = 5000;
+	/**
+	 * trueの場合、テストの失敗時にスクリーンショットとページソースを自動で保存します。<br />
+	 * 保存先はスクリーンショット保存先ディレクトリ内の failures ディレクトリです。
+	 * 保存の回数は{@link util.base.FailureCaptureLimiter FailureCaptureLimiter}で制限されます。<br />
+	 * JUnitはwatcherのfailedを@Afterのメソッドの後に呼び出すため、WebDriverはtearDownメソッドでは終了せず、
+	 * 保存の後にwatcherのfinishedで終了・返却します。
+	 */
+	protected boolean captureOnFailure = true;
+	/**
+	 * trueの場合、WebDriverのコマンドの実行回数・実行時間を計測します。既定値はシステムプロパティ webdriver.instrument の値です。<br />
+	 * テストごとのコマンドの内訳は構造化イベントログに出力されます。
+	 *
+	 * @see util.base.InstrumentedWebDriver
+	 * @see util.base.WebDriverMetrics
+	 */
+	protected boolean instrumentDriver = Boolean.getBoolean("webdriver.instrument");
 	/**
 	 * saveScreenShotメソッドで取得した画像ファイルの保存先ディレクトリのパスを指定します。<br />
 	 * 実装クラスでこの変数の値をOverrideすることで、保存先のパスを変更することができます。
@@ -65,50 +106,246 @@ public abstract class TestBase {
 	 * @see <a href="http://junit-team.github.io/junit/javadoc/latest/org/junit/rules/TestWatcher.html" target="_blank">TestWatcher</a>
 	 */
 	public final class MyTestWatcher extends TestWatcher {
-		@Override public void starting(Description des) { p("Starting", des); }
-		@Override public void finished(Description des) { p("Finished", des); }
-		@Override public void succeeded(Description des) { p("Succeeded", des); }
-		@Override public void failed(Throwable e, Description des) { p("Failed", des, e.getMessage()); }
+		/**
+		 * ログファイル保存先ディレクトリです。最初の出力時に一度だけ決定されます。
+		 */
+		private File logDir;
+		/**
+		 * 実行中のテストの開始時刻と実行スレッドを格納します。
+		 */
+		private final Map<Description, Execution> executions = new ConcurrentHashMap<Description, Execution>();
+
+		@Override
+		public void starting(Description des) {
+			if (des.isTest()) {
+				currentTestName = des.getDisplayName();
+				WebDriverMetrics.getInstance().startTest(currentTestName);
+			}
+			p("Starting", des);
+			event("Starting", des, start(des), null);
+		}
+		@Override public void succeeded(Description des) { p("Succeeded", des); event("Succeeded", des, executions.get(des), null); }
+		@Override
+		public void failed(Throwable e, Description des) {
+			p("Failed", des, e.getMessage());
+			event("Failed", des, executions.get(des), e);
+			if (driver != null && !driverReleased) captureFailure(driver, e, des);
+		}
+		@Override
+		public void finished(Description des) {
+			// failedでスクリーンショットを保存した後に、テストで使用したWebDriverを終了・返却する。
+			if (des.isTest() && driver != null && !driverReleased) releaseDriver();
+			p("Finished", des);
+			event("Finished", des, end(des), null);
+			if (des.isTest()) commands(des, WebDriverMetrics.getInstance().finishTest(des.getDisplayName()));
+		}
 
 		/**
-		 * 現在時刻とラベルとメッセージを連結した文字列を出力して行を終了します。
+		 * テストを実行せずにスキップしたことをログに出力します。
+		 *
+		 * @param des テストのDescription
+		 * @param reason スキップした理由
+		 */
+		public void skipped(Description des, String reason) {
+			p("Skipped", des, reason);
+			event("Skipped", des, null, null);
+		}
+
+		/**
+		 * 失敗時に表示していたページのスクリーンショットとページソースを保存します。<br />
+		 * captureOnFailureがfalseの場合、または{@link util.base.FailureCaptureLimiter FailureCaptureLimiter}
+		 * に許可されなかった場合は何もしません。
+		 * ブラウザからの取得のみを呼び出し元のスレッドで行い、ファイルの書き込みは
+		 * {@link util.base.ScreenshotWriter ScreenshotWriter}のバックグラウンドのスレッドで行います。
+		 *
+		 * @param d 失敗したテストで使用していたWebDriver
+		 * @param e 発生した例外
+		 * @param des テストのDescription
+		 */
+		public void captureFailure(WebDriver d, Throwable e, Description des) {
+			if (!captureOnFailure) return;
+			try {
+				String url = d.getCurrentUrl();
+				if (!FailureCaptureLimiter.getInstance().tryAcquire(url, e)) return;
+				Date takenAt = new Date();
+				File dir = new File(getScreenshotSavePath(), "failures");
+				ScreenshotWriter writer = ScreenshotWriter.getInstance();
+				if (d instanceof TakesScreenshot) writer.writeScreenshot(dir, takenAt, url, des.getDisplayName(), ((TakesScreenshot) d).getScreenshotAs(OutputType.BYTES));
+				writer.write(dir, takenAt, url, ".html", d.getPageSource().getBytes("UTF-8"));
+				p("Captured", des, new File(dir, ScreenshotWriter.fileName(takenAt, url, "")).getAbsolutePath());
+			} catch (Exception x) {
+				// ブラウザが応答しない場合等は取得を諦め、テストの結果には影響させない。
+				System.out.println(x);
+			}
+		}
+
+		/**
+		 * 別のスレッドで計測したテストの実行時間を記録します。<br />
+		 * startingメソッドより前に呼び出した場合、構造化イベントログにはこのメソッドで渡した値が出力されます。
+		 *
+		 * @param des テストのDescription
+		 * @param startNanos 実行開始時の{@link java.lang.System#nanoTime System.nanoTime}の値
+		 * @param endNanos 実行終了時の{@link java.lang.System#nanoTime System.nanoTime}の値
+		 * @param threadName テストを実行したスレッドの名前
+		 */
+		public void executed(Description des, long startNanos, long endNanos, String threadName) {
+			executions.put(des, new Execution(startNanos, endNanos, threadName));
+		}
+
+		/**
+		 * 出力済みのログとスクリーンショットをファイルに書き出します。
+		 */
+		public void flush() {
+			ScreenshotWriter.getInstance().flush();
+			LogWriter.getInstance().flush();
+		}
+
+		/**
+		 * 現在時刻とラベルとメッセージを連結した文字列をログに出力します。
 		 *
 		 * @param label ラベル
 		 * @param msg メッセージ
 		 */
-		private void p(String label, String msg) { println(d("yyyy-MM-dd HH:mm:ss.SSS") + " " + label + " : " + msg);}
-		private void p(String label, Description des) { p(label, des.getDisplayName()); }
-		private void p(String label, Description des, String msg) { p(label, des.getDisplayName() + "\n" + msg); }
+		public void log(String label, String msg) { p(label, msg); }
 
 		/**
-		 * 現在時刻を指定された形式に整形して文字列として返します。
+		 * 現在時刻とラベルとメッセージを連結した文字列を出力して行を終了します。
 		 *
-		 * @param pattern 日付と時刻のフォーマットを記述するパターン
-		 * @return 整形日付文字列
+		 * @param label ラベル
+		 * @param msg メッセージ
 		 */
-		private String d(String pattern) { return new SimpleDateFormat(pattern).format(new Date()); }
+		private void p(String label, String msg) { println(TIMESTAMP_FORMAT.get().format(new Date()) + " " + label + " : " + msg);}
+		private void p(String label, Description des) { p(label, des.getDisplayName()); }
+		private void p(String label, Description des, String msg) { p(label, des.getDisplayName() + "\n" + msg); }
 
 		/**
 		 * 標準出力にStringを出力して行を終了します。<br />
 		 * また、同じ内容をログファイルに書き込みます。
+		 * ログファイルへの書き込みは{@link util.base.LogWriter LogWriter}によってバックグラウンドで行われます。
 		 *
 		 * @param s 出力されるString値。
 		 */
 		private void println(String s) {
 			System.out.println(s);
-			String logSavePath = getLogSavePath();
-			String logFileName = d("yyyy-MM-dd") + ".test.log";
-			try{
-				File file = new File(logSavePath + "/" + logFileName);
-				PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(file, true)));
-				pw.println(s);
-				pw.close();
-			}catch(IOException e){
-				System.out.println(e);
+			write(".test.log", s);
+		}
+
+		/**
+		 * 構造化イベントログ(JSON Lines形式)に1件のイベントを書き込みます。<br />
+		 * 構造化イベントログは テキストのログと同じディレクトリの yyyy-MM-dd.events.jsonl に出力されます。
+		 *
+		 * @param phase イベントの種類
+		 * @param des テストのDescription
+		 * @param x テストの実行情報。不明な場合はnull。
+		 * @param e テストが失敗した場合は発生した例外。それ以外はnull。
+		 */
+		private void event(String phase, Description des, Execution x, Throwable e) {
+			JsonLine json = new JsonLine()
+				.put("time", System.currentTimeMillis())
+				.put("phase", phase)
+				.put("id", des.getDisplayName())
+				.put("class", des.getClassName())
+				.put("method", des.getMethodName())
+				.put("driver", driver == null ? null : driver.getClass().getSimpleName())
+				.put("thread", x == null ? Thread.currentThread().getName() : x.threadName);
+			if (x != null) {
+				json.put("startNanos", x.startNanos);
+				if (x.endNanos >= 0) json.put("endNanos", x.endNanos).put("durationNanos", x.endNanos - x.startNanos);
+			}
+			if (e != null) json.put("failure", e.getClass().getName()).put("message", e.getMessage());
+			write(".events.jsonl", json.toString());
+		}
+
+		/**
+		 * テストで実行したWebDriverのコマンドの内訳をログに出力します。コマンドを実行していない場合は何もしません。
+		 *
+		 * @param des テストのDescription
+		 * @param b テストで実行したコマンドの内訳
+		 */
+		private void commands(Description des, WebDriverMetrics.TestBreakdown b) {
+			if (b == null || b.count() == 0) return;
+			p("Commands", des, b.toString());
+			write(".events.jsonl", new JsonLine()
+				.put("time", System.currentTimeMillis())
+				.put("phase", "Commands")
+				.put("id", des.getDisplayName())
+				.put("commands", b.count())
+				.put("commandNanos", b.totalNanos())
+				.put("breakdown", b.toString())
+				.toString());
+		}
+
+		/**
+		 * テストの実行開始を記録します。既に実行時間が記録されている場合はその値を使用します。
+		 */
+		private Execution start(Description des) {
+			Execution x = executions.get(des);
+			if (x == null) {
+				x = new Execution(System.nanoTime(), -1, Thread.currentThread().getName());
+				executions.put(des, x);
 			}
+			return x;
+		}
+
+		/**
+		 * テストの実行終了を記録します。
+		 */
+		private Execution end(Description des) {
+			Execution x = executions.remove(des);
+			if (x == null || x.endNanos >= 0) return x;
+			return new Execution(x.startNanos, System.nanoTime(), x.threadName);
+		}
+
+		/**
+		 * 本日の日付のログファイルに1行を書き込みます。
+		 *
+		 * @param suffix ログファイル名の日付以降の部分
+		 * @param s 書き込む行
+		 */
+		private void write(String suffix, String s) {
+			if (logDir == null) logDir = new File(getLogSavePath());
+			LogWriter.getInstance().println(logDir, DATE_FORMAT.get().format(new Date()) + suffix, s);
+		}
+	}
+
+	/**
+	 * テストの実行開始・終了時刻と実行スレッドを格納します。
+	 */
+	private static final class Execution {
+		final long startNanos;
+		/** 実行中の場合は-1です。 */
+		final long endNanos;
+		final String threadName;
+		Execution(long startNanos, long endNanos, String threadName) {
+			this.startNanos = startNanos;
+			this.endNanos = endNanos;
+			this.threadName = threadName;
 		}
 	}
 
+	/**
+	 * ログ出力用の日時フォーマットです。SimpleDateFormatはスレッドセーフではないため、スレッドごとに保持します。
+	 */
+	private static final ThreadLocal<SimpleDateFormat> TIMESTAMP_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+		@Override protected SimpleDateFormat initialValue() { return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS"); }
+	};
+	/**
+	 * ログファイル名用の日付フォーマットです。
+	 */
+	private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+		@Override protected SimpleDateFormat initialValue() { return new SimpleDateFormat("yyyy-MM-dd"); }
+	};
+
+	/**
+	 * テストクラスの実行終了時に、出力済みのログとスクリーンショットをファイルに書き出します。
+	 */
+	@AfterClass
+	public static void flushTestLog() {
+		if (WebDriverMetrics.getInstance().isEnabled()) System.out.println(WebDriverMetrics.getInstance().summary(10));
+		ScreenshotWriter.getInstance().flush();
+		LogWriter.getInstance().flush();
+	}
+
 	/**
 	 * ログファイル保存先ディレクトリのパスを返します。<br />
 	 * ディレクトリが存在しない場合は新規作成されます。<br />
@@ -148,16 +385,60 @@ public abstract class TestBase {
 
 	@Before
 	public void setUp() {
-		driver = WebDriverFactory.newFirefoxDriver();
+		driver = createDriver();
 		jsx = (JavascriptExecutor) driver;
 		baseUrl = "about:blank";
-		driver.manage().timeouts().implicitlyWait(5, TimeUnit.SECONDS);
+		Selector.implicitlyWait(driver, implicitWaitMillis);
 		driver.get(baseUrl);
 	}
 
+	/**
+	 * テストごとの後処理を行います。<br />
+	 * WebDriverは失敗時のスクリーンショットを保存できるように、watcherのfinishedでreleaseDriverメソッドにより終了・返却します。
+	 * 実装クラスでOverrideする場合もWebDriverを終了しないでください。
+	 */
 	@After
 	public void tearDown() {
-		driver.quit();
+	}
+
+	/**
+	 * releaseDriverメソッドでWebDriverを終了・返却した場合はtrueです。
+	 * 終了したWebDriverからは失敗時のスクリーンショットを取得せず、watcherのfinishedでも終了しません。
+	 */
+	private boolean driverReleased;
+	/**
+	 * watcherが監視中のテストの名前です。スクリーンショットの索引ファイルに記録されます。
+	 */
+	private String currentTestName;
+
+	/**
+	 * driverTypeで指定された種類のWebDriverを、driverProfileで指定された設定で返します。<br />
+	 * usePooledDriverがtrueの場合はセッションプールから借ります。
+	 * instrumentDriverがtrueの場合はコマンドを計測するWebDriverを返します。
+	 *
+	 * @return WebDriver型オブジェクト。
+	 */
+	protected WebDriver createDriver() {
+		driverReleased = false;
+		if (usePooledDriver) {
+			WebDriver d = WebDriverFactory.lease(driverType, driverProfile);
+			return instrumentDriver ? InstrumentedWebDriver.wrap(d) : d;
+		}
+		try {
+			return WebDriverFactory.newInstance(driverType, driverProfile, instrumentDriver);
+		} catch (ClassNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * createDriverメソッドで取得したWebDriverを終了します。<br />
+	 * usePooledDriverがtrueの場合は、baseUrlを表示してセッションプールに返却します。
+	 */
+	protected void releaseDriver() {
+		driverReleased = true;
+		if (usePooledDriver) WebDriverFactory.release(driver, baseUrl == null ? WebDriverPool.RESET_URL : baseUrl);
+		else driver.quit();
 	}
 
 	/**
@@ -198,26 +479,64 @@ public abstract class TestBase {
 	}
 	protected void alert(String s, long mills, boolean afterClose){
 		jsx.executeScript("alert('" + s + "')", "");
-		sleep(mills);
+		Wait.upTo(mills).poll(new Wait.Condition<Boolean>() {
+			@Override public Boolean check() { return isAlertPresent(); }
+		});
 		if(afterClose){ closeAlertAndGetItsText(); }
 	}
 
+	/**
+	 * ページのDOMが変化しなくなるまで待機します。<br />
+	 * document.readyStateがcompleteであり、jQueryの通信・アニメーションが無く、
+	 * DOMの要素数と内容の長さが{@value #DOM_QUIET_MILLIS}ミリ秒間変化しない状態を静止状態とみなします。
+	 * 固定時間のsleepの代わりに使用します。
+	 *
+	 * @param timeoutMillis 待機時間の上限(ミリ秒)。
+	 * @throws org.openqa.selenium.TimeoutException 待機時間の上限までに静止状態にならなかった場合。
+	 */
+	protected void waitForDomQuiet(long timeoutMillis) {
+		Wait.upTo(timeoutMillis).until(new Wait.Condition<Boolean>() {
+			private Object last;
+			private long since;
+			@Override
+			public Boolean check() {
+				Object state = jsx.executeScript(
+					  "if (document.readyState != 'complete') return null;"
+					+ "var $ = window.jQuery;"
+					+ "if ($ && ($.active > 0 || $(':animated').length > 0)) return null;"
+					+ "return document.getElementsByTagName('*').length + ':' + document.documentElement.innerHTML.length;"
+				);
+				long now = System.currentTimeMillis();
+				if (state == null || !state.equals(last)) {
+					last = state;
+					since = now;
+					return false;
+				}
+				return now - since >= DOM_QUIET_MILLIS;
+			}
+			@Override public String toString() { return "DOM to be quiet"; }
+		});
+	}
+
+	/**
+	 * DOMが静止状態とみなすまでの時間(ミリ秒)です。
+	 */
+	private static final long DOM_QUIET_MILLIS = 100;
+
 	/**
 	 * <a href="http://selenium.googlecode.com/git/docs/api/java/org/openqa/selenium/TakesScreenshot.html" target="_blank">
 	 * getScreenshotAsメソッド
-	 * </a>をシンプルに扱うためのラッパーです。
+	 * </a>をシンプルに扱うためのラッパーです。<br />
+	 * 画像のバイト列の取得のみをテストのスレッドで行い、ファイルの書き込みは
+	 * {@link util.base.ScreenshotWriter ScreenshotWriter}のバックグラウンドのスレッドで行います。
+	 * 書き込み待ちの画像はテストクラスの実行終了時に書き出されます。
 	 */
 	protected void saveScreenshot() {
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMddHHmmssSSS");
-		String date = sdf.format(new Date());
-		String url = driver.getCurrentUrl().replaceAll("[\\/:*\\?\"<>\\|]", "_");
-		String ext = ".png";
-		String path = getScreenshotSavePath() + "/" + date + "_" + url + ext;
-
 		try {
 			if (driver instanceof TakesScreenshot) {
-				File tmpFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-				org.openqa.selenium.io.FileHandler.copy(tmpFile, new File(path));
+				Date takenAt = new Date();
+				byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+				ScreenshotWriter.getInstance().writeScreenshot(new File(getScreenshotSavePath()), takenAt, driver.getCurrentUrl(), currentTestName, png);
 			}
 		} catch (Exception e) {
 			throw new RuntimeException(e);
@@ -226,34 +545,19 @@ public abstract class TestBase {
 
 	/**
 	 * 一時ファイルディレクトリにhtmlファイルを生成します。<br />
-	 * 対象サイトが存在しないテストケースに使用します。
+	 * 対象サイトが存在しないテストケースに使用します。<br />
+	 * ファイルは{@link util.base.FixtureCache FixtureCache}で内容ごとに一度だけ生成され、
+	 * 同じ内容のhtmlでは既存のファイルを返します。
 	 *
 	 * @param htmlBody htmlのbodyタグ内に出力される文字列。
 	 * @return 生成されたhtmlファイルのオブジェクト。
 	 */
 	protected File createTemporaryHtmlFile(String htmlBody) {
-		String html =
-		  "<!DOCTYPE html>"
-		+ "<html>"
-		+ " <head>"
-		+ "  <meta charset=\"UTF-8\">"
-		+ "  <title>Created Temporary Html File</title>"
-		+ "  <script src=\"http://code.jquery.com/jquery-1.10.1.min.js\"></script>"
-		+ "  <link href=\"http://netdna.bootstrapcdn.com/bootstrap/3.0.0/css/bootstrap.min.css\" rel=\"stylesheet\">"
-		+ " </head>"
-		+ " <body>"
-		+ htmlBody
-		+ " </body>"
-		+ "</html>";
+		String html = createHtml(htmlBody);
 
 		File file = null;
 		try{
-			file = File.createTempFile(this.getClass().getPackage().getName(), ".html");
-			file.deleteOnExit();
-			FileWriter writer = new FileWriter(file);
-			writer.write(html);
-			writer.close();
-			System.out.println("HTML File Created. " + file.getAbsolutePath());
+			file = FixtureCache.getInstance().toFile(html);
 		}catch(IOException e){
 			System.out.println(e);
 		}
@@ -270,9 +574,50 @@ public abstract class TestBase {
 	protected File createTemporaryHtmlFileAndGo(String htmlBody) {
 		File htmlFile = createTemporaryHtmlFile(htmlBody);
 		driver.get("file:///" + htmlFile.getAbsolutePath());
+		Selector.invalidate(driver);
 		return htmlFile;
 	}
 
+	/**
+	 * htmlを{@link util.base.FixtureServer FixtureServer}に登録してブラウザで表示します。<br />
+	 * htmlはメモリ上から配信されるため、ファイルの生成を行わず、外部のネットワークにも接続しません。
+	 * 対象サイトが存在しないテストケースに使用します。
+	 *
+	 * @param htmlBody htmlのbodyタグ内に出力される文字列。
+	 * @return htmlのURL。
+	 */
+	protected String createFixtureAndGo(String htmlBody) {
+		String url = FixtureServer.getInstance().register(createHtml(htmlBody));
+		driver.get(url);
+		Selector.invalidate(driver);
+		return url;
+	}
+
+	/**
+	 * jQuery・Bootstrapを読み込むhtmlを生成します。<br />
+	 * jQuery・Bootstrapは{@link util.base.FixtureServer FixtureServer}から読み込みます。
+	 * ファイルがリポジトリに含まれていない場合は配布元のCDNから読み込みます。
+	 *
+	 * @param htmlBody htmlのbodyタグ内に出力される文字列。
+	 * @return html文字列。
+	 */
+	protected String createHtml(String htmlBody) {
+		FixtureServer server = FixtureServer.getInstance();
+		return
+		  "<!DOCTYPE html>"
+		+ "<html>"
+		+ " <head>"
+		+ "  <meta charset=\"UTF-8\">"
+		+ "  <title>Created Temporary Html File</title>"
+		+ "  <script src=\"" + server.assetUrl(FixtureServer.JQUERY) + "\"></script>"
+		+ "  <link href=\"" + server.assetUrl(FixtureServer.BOOTSTRAP) + "\" rel=\"stylesheet\">"
+		+ " </head>"
+		+ " <body>"
+		+ htmlBody
+		+ " </body>"
+		+ "</html>";
+	}
+
 	/**
 	 * alertウィンドウの存在を確認します。
 	 *
@@ -0,0 +1,130 @@
+package util.base;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.runner.Computer;
+import org.junit.runner.Runner;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * TestBaseを継承したテストクラス・テストメソッドを仮想スレッドで並列に実行するComputerです。<br />
+ * テストはWebDriverのHTTP通信の待ち時間の大半をブロックして過ごすため、仮想スレッドで実行することで
+ * 多数のブラウザのセッションを少ないOSのスレッドで操作できます。<br />
+ * 同時に実行するテスト(ブラウザのセッション)の数はセマフォで sessions 件までに制限します。
+ * テストクラスとテストメソッドの両方を並列に実行する場合は、テストメソッドの数を制限します。
+ * TestBaseのusePooledDriverがtrueの場合は、セッションプールの同時貸し出し数の上限でも制限されます。<br />
+ * 仮想スレッドを使用できないJavaのバージョンでは、sessions 件のデーモンスレッドのスレッドプールで実行します。
+ *
+ * <pre>
+ * JUnitCore.runClasses(VirtualThreadComputer.methods(8), SampleTest.class);
+ * </pre>
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class VirtualThreadComputer extends Computer {
+	/** 同時に実行するテストの数を制限するセマフォです。 */
+	private final Semaphore sessions;
+	/** 同時に実行するテストの数の上限です。仮想スレッドを使用できない場合のスレッド数になります。 */
+	private final int size;
+	private final boolean classes;
+	private final boolean methods;
+
+	/**
+	 * @param sessions 同時に実行するテスト(ブラウザのセッション)の数の上限。
+	 * @param classes trueの場合、テストクラスを並列に実行します。
+	 * @param methods trueの場合、テストクラスのテストメソッドを並列に実行します。
+	 */
+	public VirtualThreadComputer(int sessions, boolean classes, boolean methods) {
+		this.size = Math.max(1, sessions);
+		this.sessions = new Semaphore(size, true);
+		this.classes = classes;
+		this.methods = methods;
+	}
+
+	/**
+	 * テストクラスを並列に実行するComputerを返します。
+	 *
+	 * @param sessions 同時に実行するテストクラスの数の上限。
+	 * @return Computer型オブジェクト。
+	 */
+	public static Computer classes(int sessions) { return new VirtualThreadComputer(sessions, true, false); }
+
+	/**
+	 * テストメソッドを並列に実行するComputerを返します。
+	 *
+	 * @param sessions 同時に実行するテストメソッドの数の上限。
+	 * @return Computer型オブジェクト。
+	 */
+	public static Computer methods(int sessions) { return new VirtualThreadComputer(sessions, false, true); }
+
+	@Override
+	public Runner getSuite(RunnerBuilder builder, Class<?>[] classes) throws InitializationError {
+		Runner suite = super.getSuite(builder, classes);
+		return this.classes ? parallelize(suite, "classes", !methods) : suite;
+	}
+
+	@Override
+	protected Runner getRunner(RunnerBuilder builder, Class<?> testClass) throws Throwable {
+		Runner runner = super.getRunner(builder, testClass);
+		return methods ? parallelize(runner, testClass.getSimpleName(), true) : runner;
+	}
+
+	private Runner parallelize(Runner runner, String prefix, boolean bounded) {
+		if (runner instanceof ParentRunner) ((ParentRunner<?>) runner).setScheduler(new Scheduler(prefix, bounded));
+		return runner;
+	}
+
+	/**
+	 * 子要素(テストクラス・テストメソッド)を1件づつ仮想スレッドで実行するRunnerSchedulerです。<br />
+	 * 実行数を制限する場合は、スレッドを生成する前に呼び出し元のスレッドでセマフォの空きを待ちます。
+	 * 仮想スレッドを使用できない場合は、OSのスレッドがsessions件を超えないように固定サイズのスレッドプールを使用します。
+	 */
+	private final class Scheduler implements RunnerScheduler {
+		private final ExecutorService executor;
+		/** trueの場合、子要素の実行数をセマフォで制限します。 */
+		private final boolean bounded;
+
+		Scheduler(String prefix, boolean bounded) {
+			this.executor = VirtualThreads.isAvailable()
+				? Executors.newCachedThreadPool(VirtualThreads.factory(prefix))
+				: Executors.newFixedThreadPool(size, VirtualThreads.factory(prefix));
+			this.bounded = bounded;
+		}
+
+		@Override
+		public void schedule(final Runnable child) {
+			if (bounded) sessions.acquireUninterruptibly();
+			try {
+				executor.submit(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							child.run();
+						} finally {
+							if (bounded) sessions.release();
+						}
+					}
+				});
+			} catch (RuntimeException e) {
+				if (bounded) sessions.release();
+				throw e;
+			}
+		}
+
+		@Override
+		public void finished() {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+}
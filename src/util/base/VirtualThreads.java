@@ -0,0 +1,65 @@
+package util.base;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 仮想スレッドを生成するThreadFactoryを提供するクラスです。<br />
+ * 仮想スレッドはWebDriverのHTTP通信の待ち時間の間OSのスレッドを占有しないため、
+ * 多数のブラウザのセッションを少ないOSのスレッドで操作できます。<br />
+ * 仮想スレッドはJava 21以降で使用できます。このプロジェクトはJava 6以降を対象とするため、
+ * Thread.ofVirtual()はリフレクションで呼び出し、使用できない場合は{@link util.base.DaemonThreadFactory DaemonThreadFactory}で代替します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class VirtualThreads {
+	/** 仮想スレッドのビルダーを生成するThread.ofVirtual()メソッドです。使用できない場合はnull。 */
+	private static final Method OF_VIRTUAL = find();
+
+	private VirtualThreads() {}
+
+	/**
+	 * 仮想スレッドを使用できる場合はtrueを返します。
+	 */
+	public static boolean isAvailable() { return OF_VIRTUAL != null; }
+
+	/**
+	 * 仮想スレッドを生成するThreadFactoryを返します。
+	 *
+	 * @param prefix スレッド名の接頭辞。スレッド名は 接頭辞-連番 となります。
+	 * @return 仮想スレッドを使用できない場合はDaemonThreadFactory。
+	 */
+	public static ThreadFactory factory(String prefix) {
+		if (OF_VIRTUAL == null) return new DaemonThreadFactory(prefix);
+		try {
+			Class<?> builder = Class.forName("java.lang.Thread$Builder");
+			Object b = OF_VIRTUAL.invoke(null);
+			b = builder.getMethod("name", String.class, long.class).invoke(b, prefix + "-", 1L);
+			return (ThreadFactory) builder.getMethod("factory").invoke(b);
+		} catch (Exception e) {
+			return new DaemonThreadFactory(prefix);
+		}
+	}
+
+	/**
+	 * 仮想スレッドまたはデーモンスレッドを生成するThreadFactoryを返します。
+	 *
+	 * @param prefix スレッド名の接頭辞。
+	 * @param virtual trueの場合は仮想スレッド、falseの場合はデーモンスレッドを生成します。
+	 * @return ThreadFactory型オブジェクト。
+	 */
+	public static ThreadFactory factory(String prefix, boolean virtual) {
+		return virtual ? factory(prefix) : new DaemonThreadFactory(prefix);
+	}
+
+	private static Method find() {
+		try {
+			Method m = Thread.class.getMethod("ofVirtual");
+			// プレビュー機能が無効なJava 19・20では呼び出し時に例外が発生する。
+			m.invoke(null);
+			return m;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package util.base;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * 条件が満たされるまでポーリングで待機するクラスです。<br />
+ * 固定時間のsleepの代わりに使用します。条件が満たされた時点ですぐに処理を戻します。<br />
+ * ポーリング間隔は{@value #DEFAULT_INITIAL_INTERVAL}ミリ秒から始まり、
+ * 条件が満たされない間は{@value #DEFAULT_MAX_INTERVAL}ミリ秒まで倍増します。
+ * 待機時間の上限は呼び出しごとに指定します。
+ *
+ * <pre>
+ * Wait.upTo(3000).until(new Wait.Condition&lt;Boolean&gt;() {
+ *     public Boolean check() { return $("#result").isDisplayed(); }
+ * });
+ * </pre>
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class Wait {
+	/** ポーリング間隔の初期値(ミリ秒)です。 */
+	public static final long DEFAULT_INITIAL_INTERVAL = 10;
+	/** ポーリング間隔の上限(ミリ秒)です。 */
+	public static final long DEFAULT_MAX_INTERVAL = 250;
+
+	/**
+	 * 待機する条件です。
+	 *
+	 * @param <T> 条件の判定結果の型
+	 */
+	public interface Condition<T> {
+		/**
+		 * 条件を判定します。<br />
+		 * null・falseを返した場合、NoSuchElementException・StaleElementReferenceExceptionが発生した場合は、
+		 * 条件が満たされていないものとして再度判定します。
+		 *
+		 * @return 判定結果
+		 */
+		T check();
+	}
+
+	private final long timeoutMillis;
+	private long initialInterval = DEFAULT_INITIAL_INTERVAL;
+	private long maxInterval = DEFAULT_MAX_INTERVAL;
+
+	private Wait(long timeoutMillis) { this.timeoutMillis = timeoutMillis; }
+
+	/**
+	 * 指定された時間を上限として待機するWaitオブジェクトを生成します。
+	 *
+	 * @param timeoutMillis 待機時間の上限(ミリ秒)。0の場合は1回だけ判定します。
+	 * @return Waitオブジェクト。
+	 */
+	public static Wait upTo(long timeoutMillis) { return new Wait(timeoutMillis); }
+
+	/**
+	 * ポーリング間隔を設定します。
+	 *
+	 * @param initialInterval ポーリング間隔の初期値(ミリ秒)。
+	 * @param maxInterval ポーリング間隔の上限(ミリ秒)。
+	 * @return Waitオブジェクト自身。
+	 */
+	public Wait withBackoff(long initialInterval, long maxInterval) {
+		this.initialInterval = initialInterval;
+		this.maxInterval = maxInterval;
+		return this;
+	}
+
+	/**
+	 * 条件が満たされるまで待機します。
+	 *
+	 * @param condition 待機する条件。
+	 * @return 条件の判定結果。
+	 * @throws TimeoutException 待機時間の上限までに条件が満たされなかった場合。
+	 */
+	public <T> T until(Condition<T> condition) {
+		T result = poll(condition);
+		if (result == null) throw new TimeoutException("Timed out after " + timeoutMillis + "ms waiting for " + condition);
+		return result;
+	}
+
+	/**
+	 * 条件が満たされるまで待機します。待機時間の上限を超えた場合は例外を送出せずにnullを返します。
+	 *
+	 * @param condition 待機する条件。
+	 * @return 条件の判定結果。条件が満たされなかった場合はnull。
+	 */
+	public <T> T poll(Condition<T> condition) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		long interval = initialInterval;
+		while (true) {
+			T result = check(condition);
+			if (result != null) return result;
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) return null;
+			try {
+				Thread.sleep(Math.min(interval, remaining));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			interval = Math.min(interval * 2, maxInterval);
+		}
+	}
+
+	private static <T> T check(Condition<T> condition) {
+		try {
+			T result = condition.check();
+			return Boolean.FALSE.equals(result) ? null : result;
+		} catch (NoSuchElementException e) {
+			return null;
+		} catch (StaleElementReferenceException e) {
+			return null;
+		}
+	}
+}
@@ -1,13 +1,28 @@
 package util.base;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxBinary;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxProfile;
 import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 import org.openqa.selenium.ie.InternetExplorerDriver;
+import org.openqa.selenium.ie.InternetExplorerDriverService;
+import org.openqa.selenium.io.FileHandler;
+import org.openqa.selenium.io.TemporaryFilesystem;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
 
 /**
- * WebDriver型のInstanceを提供するためのファクトリクラスです。
+ * WebDriver型のInstanceを提供するためのファクトリクラスです。<br />
+ * chromedriver・IEDriverServerの実行ファイルは{@link util.base.DriverBinaries DriverBinaries}で実行中のOSに合わせて検索します。
  *
  * @author tatsuo1234567@gmail.com
  */
@@ -17,18 +32,161 @@ public class WebDriverFactory {
 	public static enum Driver {CHROME, IE, ANDROID, HTMLUNIT, FIREFOX}
 
 	/**
-	 * WebDriver型のInstanceを生成します。
+	 * 起動済みのWebDriverを再利用するためのセッションプールです。<br />
+	 * 上限値はシステムプロパティ webdriver.pool.maxSize, webdriver.pool.maxLeases,
+	 * webdriver.pool.maxAgeMillis, webdriver.pool.leaseTimeoutMillis で変更できます。
+	 */
+	private static volatile WebDriverPool pool;
+	/**
+	 * 全てのChromeのセッションで共有するchromedriverのサーバープロセスです。
+	 */
+	private static volatile ChromeDriverService chromeService;
+	/**
+	 * JVMの終了時にセッションプールとサーバープロセスを終了するshutdown hookを登録済みの場合はtrueです。
+	 */
+	private static boolean shutdownHookRegistered;
+
+	/**
+	 * WebDriverのセッションプールを返します。<br />
+	 * 初回の呼び出し時に生成され、JVMの終了時に全てのセッションが終了されます。
+	 *
+	 * @return WebDriverPool型オブジェクト。
+	 */
+	public static synchronized WebDriverPool getPool() {
+		if (pool == null) {
+			pool = new WebDriverPool(
+				Integer.getInteger("webdriver.pool.maxSize", 4),
+				Integer.getInteger("webdriver.pool.maxLeases", 50),
+				Long.getLong("webdriver.pool.maxAgeMillis", 30 * 60 * 1000L),
+				Long.getLong("webdriver.pool.leaseTimeoutMillis", 60 * 1000L)
+			);
+			registerShutdownHook();
+		}
+		return pool;
+	}
+
+	/**
+	 * 全てのChromeのセッションで共有するchromedriverのサーバープロセスを返します。<br />
+	 * 初回の呼び出し時に起動し、JVMの終了時にセッションプールの終了後に停止されます。
+	 * サーバープロセスが異常終了していた場合は再起動します。
+	 *
+	 * @return 起動済みのChromeDriverService型オブジェクト。
+	 */
+	public static synchronized ChromeDriverService getChromeDriverService() {
+		if (chromeService == null) {
+			chromeService = new ChromeDriverService.Builder()
+				.usingDriverExecutable(DriverBinaries.chromeDriver())
+				.usingAnyFreePort()
+				.build();
+			registerShutdownHook();
+		}
+		if (!chromeService.isRunning()) {
+			try {
+				chromeService.start();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return chromeService;
+	}
+
+	/**
+	 * セッションプールのセッションを終了してからサーバープロセスを停止するshutdown hookを1回だけ登録します。<br />
+	 * サーバープロセスを先に停止するとセッションを終了できずにブラウザが残るため、1つのshutdown hookで順番に終了します。
+	 */
+	private static synchronized void registerShutdownHook() {
+		if (shutdownHookRegistered) return;
+		shutdownHookRegistered = true;
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				WebDriverPool p = pool;
+				if (p != null) p.shutdown();
+				ChromeDriverService s = chromeService;
+				if (s != null) s.stop();
+			}
+		});
+	}
+
+	/**
+	 * セッションプールからWebDriverを借ります。
+	 *
+	 * @param selectedDriver WebDriverを指定するWebDriverFactory.Driver型定数。
+	 * @return WebDriver WebDriver型オブジェクト。
+	 * @see util.base.WebDriverPool#lease
+	 */
+	public static WebDriver lease(Driver selectedDriver) { return getPool().lease(selectedDriver); }
+
+	/**
+	 * セッションプールから指定されたプロファイルで起動したWebDriverを借ります。
+	 *
+	 * @param selectedDriver WebDriverを指定するWebDriverFactory.Driver型定数。
+	 * @param profile ブラウザの起動時の設定。
+	 * @return WebDriver WebDriver型オブジェクト。
+	 * @see util.base.WebDriverPool#lease
+	 */
+	public static WebDriver lease(Driver selectedDriver, DriverProfile profile) { return getPool().lease(selectedDriver, profile); }
+
+	/**
+	 * セッションプールから借りたWebDriverを返却します。
+	 *
+	 * @param driver 返却するWebDriver型オブジェクト。
+	 * @see util.base.WebDriverPool#release
+	 */
+	public static void release(WebDriver driver) { getPool().release(driver); }
+
+	/**
+	 * セッションプールから借りたWebDriverを、指定されたURLを表示して返却します。
+	 *
+	 * @param driver 返却するWebDriver型オブジェクト。
+	 * @param resetUrl 返却時に表示するURL。
+	 * @see util.base.WebDriverPool#release(WebDriver, String)
+	 */
+	public static void release(WebDriver driver, String resetUrl) { getPool().release(driver, resetUrl); }
+
+	/**
+	 * WebDriver型のInstanceを生成します。<br />
+	 * ブラウザはシステムプロパティ webdriver.profile で指定されたプロファイルで起動します。
+	 * システムプロパティ webdriver.instrument にtrueを指定した場合は、
+	 * コマンドの実行回数・実行時間を計測する{@link util.base.InstrumentedWebDriver InstrumentedWebDriver}を返します。
 	 *
 	 * @param selectedDriver WebDriverを指定するWebDriverFactory.Driver型定数。
 	 * @return WebDriver WebDriver型オブジェクト。
 	 * @throws ClassNotFoundException
 	 */
 	public static WebDriver newInstance(Driver selectedDriver) throws ClassNotFoundException {
-		if(selectedDriver.equals(Driver.CHROME)) return newChromeDriver();
-		else if(selectedDriver.equals(Driver.IE)) return newInternetExplorerDriver();
-		else if(selectedDriver.equals(Driver.HTMLUNIT)) return newHtmlUnitDriver();
-		else if(selectedDriver.equals(Driver.FIREFOX)) return newFirefoxDriver();
+		return newInstance(selectedDriver, Boolean.getBoolean("webdriver.instrument"));
+	}
+
+	/**
+	 * WebDriver型のInstanceを生成します。
+	 *
+	 * @param selectedDriver WebDriverを指定するWebDriverFactory.Driver型定数。
+	 * @param instrument trueの場合、コマンドの実行回数・実行時間を{@link util.base.WebDriverMetrics WebDriverMetrics}に記録します。
+	 * @return WebDriver WebDriver型オブジェクト。
+	 * @throws ClassNotFoundException
+	 */
+	public static WebDriver newInstance(Driver selectedDriver, boolean instrument) throws ClassNotFoundException {
+		return newInstance(selectedDriver, DriverProfile.fromSystemProperties(), instrument);
+	}
+
+	/**
+	 * 指定されたプロファイルでWebDriver型のInstanceを生成します。
+	 *
+	 * @param selectedDriver WebDriverを指定するWebDriverFactory.Driver型定数。
+	 * @param profile ブラウザの起動時の設定。HtmlUnit・IEでは無視されます。
+	 * @param instrument trueの場合、コマンドの実行回数・実行時間を{@link util.base.WebDriverMetrics WebDriverMetrics}に記録します。
+	 * @return WebDriver WebDriver型オブジェクト。
+	 * @throws ClassNotFoundException
+	 */
+	public static WebDriver newInstance(Driver selectedDriver, DriverProfile profile, boolean instrument) throws ClassNotFoundException {
+		WebDriver driver;
+		if(selectedDriver.equals(Driver.CHROME)) driver = newSharedChromeDriver(profile);
+		else if(selectedDriver.equals(Driver.IE)) driver = newInternetExplorerDriver();
+		else if(selectedDriver.equals(Driver.HTMLUNIT)) driver = newHtmlUnitDriver();
+		else if(selectedDriver.equals(Driver.FIREFOX)) driver = newFirefoxDriver(profile);
 		else throw new ClassNotFoundException();
+		return instrument ? InstrumentedWebDriver.wrap(driver) : driver;
 	}
 
 	/**
@@ -38,6 +196,36 @@ public class WebDriverFactory {
 	 */
 	public static FirefoxDriver newFirefoxDriver(){ return new FirefoxDriver(); }
 
+	/**
+	 * 指定されたプロファイルでFirefoxDriverクラスのInstanceを生成します。<br />
+	 * Firefoxのヘッドレスモードは Firefox 56 以降の機能で、このバージョンのFirefoxDriverが対応するFirefoxでは使用できません。
+	 * ヘッドレスモードのプロファイル({@link util.base.DriverProfile#HEADLESS HEADLESS}・{@link util.base.DriverProfile#FAST FAST})は指定できません。
+	 *
+	 * @param profile ブラウザの起動時の設定。
+	 * @return FirefoxDriver型オブジェクト。
+	 * @throws IllegalArgumentException ヘッドレスモードのプロファイルを指定した場合。
+	 */
+	public static FirefoxDriver newFirefoxDriver(DriverProfile profile){
+		if (profile.isHeadless()) throw new IllegalArgumentException("Firefox does not support the headless mode with this FirefoxDriver: " + profile);
+		if (profile.equals(DriverProfile.DEFAULT)) return newFirefoxDriver();
+		FirefoxBinary binary = new FirefoxBinary();
+		// FirefoxProfileは雛形のディレクトリを一時ディレクトリに複製して使用する。
+		FirefoxProfile p = (profile.getTemplate() == null) ? new FirefoxProfile() : new FirefoxProfile(profile.getTemplate());
+		if (profile.isLightweight()) {
+			p.setPreference("permissions.default.image", 2);
+			p.setPreference("permissions.default.stylesheet", 2);
+			p.setPreference("browser.display.use_document_fonts", 0);
+			p.setPreference("gfx.downloadable_fonts.enabled", false);
+		}
+		DesiredCapabilities caps = DesiredCapabilities.firefox();
+		if (profile.getPageLoad() != DriverProfile.PageLoad.NORMAL) {
+			// FirefoxDriverの拡張機能ではunstableが読み込みを待たない設定になる。
+			p.setPreference("webdriver.load.strategy", "unstable");
+			caps.setCapability("pageLoadStrategy", profile.getPageLoad().capability());
+		}
+		return new FirefoxDriver(binary, p, caps);
+	}
+
 	/**
 	 * HtmlUnitDriverクラスのInstanceを生成します。
 	 *
@@ -46,23 +234,109 @@ public class WebDriverFactory {
 	public static HtmlUnitDriver newHtmlUnitDriver(){ return new HtmlUnitDriver(); }
 
 	/**
-	 * ChromeDriverクラスのInstanceを生成します。
+	 * ChromeDriverクラスのInstanceを生成します。<br />
+	 * chromedriverのサーバープロセスはセッションごとに起動し、quitメソッドで停止します。
+	 *
+	 * @return ChromeDriver型オブジェクト。
+	 * @see #newSharedChromeDriver()
+	 */
+	public static ChromeDriver newChromeDriver(){ return new ChromeDriver(newChromeDriverService()); }
+
+	/**
+	 * 指定されたプロファイルでChromeDriverクラスのInstanceを生成します。<br />
+	 * chromedriverのサーバープロセスはセッションごとに起動し、quitメソッドで停止します。
 	 *
+	 * @param profile ブラウザの起動時の設定。
 	 * @return ChromeDriver型オブジェクト。
+	 * @see #newSharedChromeDriver(DriverProfile)
+	 */
+	public static ChromeDriver newChromeDriver(DriverProfile profile){
+		if (profile.equals(DriverProfile.DEFAULT)) return newChromeDriver();
+		return new ChromeDriver(newChromeDriverService(), chromeCapabilities(profile));
+	}
+
+	/**
+	 * Chromeを起動し、共有のchromedriverのサーバープロセスに接続したWebDriverを生成します。<br />
+	 * quitメソッドではセッションのみを終了し、サーバープロセスは次のセッションで再利用します。
+	 *
+	 * @return SharedServiceWebDriver型オブジェクト。
+	 * @see #getChromeDriverService
 	 */
-	public static ChromeDriver newChromeDriver(){
-		System.setProperty("webdriver.chrome.driver", ProjectInfo.absolutePath + "/drivers/chromedriver.exe");
-		return new ChromeDriver();
+	public static RemoteWebDriver newSharedChromeDriver(){
+		return new SharedServiceWebDriver(getChromeDriverService(), DesiredCapabilities.chrome());
 	}
 
 	/**
-	 * InternetExplorerDriverクラスのInstanceを生成します。
+	 * 指定されたプロファイルでChromeを起動し、共有のchromedriverのサーバープロセスに接続したWebDriverを生成します。<br />
+	 * quitメソッドではセッションのみを終了し、サーバープロセスは次のセッションで再利用します。
+	 *
+	 * @param profile ブラウザの起動時の設定。
+	 * @return SharedServiceWebDriver型オブジェクト。
+	 * @see #getChromeDriverService
+	 */
+	public static RemoteWebDriver newSharedChromeDriver(DriverProfile profile){
+		if (profile.equals(DriverProfile.DEFAULT)) return newSharedChromeDriver();
+		return new SharedServiceWebDriver(getChromeDriverService(), chromeCapabilities(profile));
+	}
+
+	/**
+	 * セッションごとに起動するchromedriverのサーバープロセスを生成します。
+	 */
+	private static ChromeDriverService newChromeDriverService() {
+		return new ChromeDriverService.Builder()
+			.usingDriverExecutable(DriverBinaries.chromeDriver())
+			.usingAnyFreePort()
+			.build();
+	}
+
+	/**
+	 * プロファイルの設定をChromeの起動時の設定に変換します。<br />
+	 * Chromeではフォントの読み込みを無効にできないため、画像・CSSのみ読み込みません。
+	 */
+	private static DesiredCapabilities chromeCapabilities(DriverProfile profile) {
+		ChromeOptions options = new ChromeOptions();
+		options.addArguments("--no-first-run", "--no-default-browser-check", "--disable-extensions");
+		if (profile.isHeadless()) options.addArguments("--headless", "--disable-gpu");
+		if (profile.isLightweight()) {
+			Map<String, Object> prefs = new HashMap<String, Object>();
+			prefs.put("profile.managed_default_content_settings.images", 2);
+			prefs.put("profile.managed_default_content_settings.stylesheets", 2);
+			options.setExperimentalOption("prefs", prefs);
+			options.addArguments("--blink-settings=imagesEnabled=false");
+		}
+		if (profile.getTemplate() != null) options.addArguments("--user-data-dir=" + copyProfile(profile.getTemplate()).getAbsolutePath());
+		DesiredCapabilities caps = DesiredCapabilities.chrome();
+		caps.setCapability(ChromeOptions.CAPABILITY, options);
+		if (profile.getPageLoad() != DriverProfile.PageLoad.NORMAL) caps.setCapability("pageLoadStrategy", profile.getPageLoad().capability());
+		return caps;
+	}
+
+	/**
+	 * InternetExplorerDriverクラスのInstanceを生成します。<br />
+	 * IEDriverServerは1つのプロセスで複数のIEのセッションを扱えないため、サーバープロセスはセッションごとに起動し、quitメソッドで停止します。
 	 *
 	 * @return InternetExplorerDriver型オブジェクト。
 	 */
 	public static InternetExplorerDriver newInternetExplorerDriver(){
-		System.setProperty("webdriver.ie.driver", ProjectInfo.absolutePath + "/drivers/IEDriverServer.exe");
-		return new InternetExplorerDriver();
+		return new InternetExplorerDriver(new InternetExplorerDriverService.Builder()
+			.usingDriverExecutable(DriverBinaries.ieDriver())
+			.usingAnyFreePort()
+			.build());
+	}
+
+	/**
+	 * プロファイルの雛形のディレクトリを一時ディレクトリに複製します。<br />
+	 * Chromeは起動中のプロファイルのディレクトリをロックするため、同時に起動するブラウザごとに複製します。
+	 * 一時ディレクトリはJVMの終了時に削除されます。
+	 */
+	private static File copyProfile(File template) {
+		File dir = TemporaryFilesystem.getDefaultTmpFS().createTempDir("profile", "chrome");
+		try {
+			FileHandler.copy(template, dir);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return dir;
 	}
 
 }
@@ -0,0 +1,283 @@
+package util.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link util.base.InstrumentedWebDriver InstrumentedWebDriver}で計測したWebDriverのコマンドの実行回数・実行時間を集計するクラスです。<br />
+ * コマンドごと・ロケーター(要素の検索に使用したBy)ごとのヒストグラムと、テストごとのコマンドの内訳を保持します。<br />
+ * テストごとの内訳は{@link #startTest startTest}メソッドから{@link #finishTest finishTest}メソッドまでの間に、
+ * startTestメソッドを呼び出したスレッドで実行したコマンドを集計します。
+ * ロケーターごとのヒストグラムは最近使用した{@value #MAX_LOCATORS}件まで保持します。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public final class WebDriverMetrics {
+	/** ロケーターごとのヒストグラムを保持する件数の上限です。 */
+	private static final int MAX_LOCATORS = 1000;
+	private static final WebDriverMetrics INSTANCE = new WebDriverMetrics();
+
+	/** コマンドごとのヒストグラムです。 */
+	private final ConcurrentHashMap<String, Histogram> commands = new ConcurrentHashMap<String, Histogram>();
+	/** ロケーターごとのヒストグラムです。 */
+	private final Map<String, Histogram> locators = new LinkedHashMap<String, Histogram>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Histogram> eldest) { return size() > MAX_LOCATORS; }
+	};
+	/** 実行中のテストの内訳です。 */
+	private final ConcurrentHashMap<String, TestBreakdown> running = new ConcurrentHashMap<String, TestBreakdown>();
+	/** スレッドで実行中のテストの内訳です。 */
+	private final ThreadLocal<TestBreakdown> current = new ThreadLocal<TestBreakdown>();
+	/** WebDriverのコマンドを計測している場合はtrueです。 */
+	private volatile boolean enabled;
+
+	/**
+	 * 実行時間のヒストグラムです。2のべき乗のマイクロ秒ごとの区間で件数を数えます。
+	 */
+	public static final class Histogram {
+		private final long[] buckets = new long[40];
+		private long count;
+		private long errors;
+		private long totalNanos;
+		private long maxNanos;
+
+		synchronized void record(long nanos, boolean failed) {
+			count++;
+			if (failed) errors++;
+			totalNanos += nanos;
+			if (nanos > maxNanos) maxNanos = nanos;
+			buckets[bucket(nanos)]++;
+		}
+
+		/** 実行回数を返します。 */
+		public synchronized long count() { return count; }
+		/** 例外が発生した実行回数を返します。 */
+		public synchronized long errors() { return errors; }
+		/** 実行時間の合計(ナノ秒)を返します。 */
+		public synchronized long totalNanos() { return totalNanos; }
+		/** 実行時間の最大値(ナノ秒)を返します。 */
+		public synchronized long maxNanos() { return maxNanos; }
+
+		/**
+		 * 実行時間のパーセンタイル値を返します。値は該当する区間の上限で、最大値を超えません。
+		 *
+		 * @param p パーセンタイル(0～100)。
+		 * @return 実行時間(ナノ秒)。記録が無い場合は0。
+		 */
+		public synchronized long percentile(double p) {
+			if (count == 0) return 0;
+			long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+			long seen = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= rank) return Math.min(maxNanos, (1000L << i) - 1);
+			}
+			return maxNanos;
+		}
+
+		/**
+		 * 区間ごとの件数を返します。i番目の区間は 2^(i-1) 以上 2^i 未満のマイクロ秒(0番目は1マイクロ秒未満)です。
+		 *
+		 * @return 区間ごとの件数。
+		 */
+		public synchronized long[] buckets() { return buckets.clone(); }
+
+		@Override
+		public synchronized String toString() {
+			return String.format("count: %d, errors: %d, total: %.1f ms, mean: %.3f ms, p50: %.3f ms, p95: %.3f ms, max: %.3f ms",
+				count, errors, ms(totalNanos), count == 0 ? 0.0 : ms(totalNanos) / count, ms(percentile(50)), ms(percentile(95)), ms(maxNanos));
+		}
+
+		private static int bucket(long nanos) {
+			long micros = nanos / 1000;
+			return micros == 0 ? 0 : Math.min(39, 64 - Long.numberOfLeadingZeros(micros));
+		}
+	}
+
+	/**
+	 * テスト1件で実行したコマンドの内訳です。
+	 */
+	public static final class TestBreakdown {
+		/** テストの名前です。 */
+		public final String test;
+		private final Map<String, Histogram> commands = new TreeMap<String, Histogram>();
+
+		TestBreakdown(String test) { this.test = test; }
+
+		synchronized void record(String command, long nanos, boolean failed) { histogram(commands, command).record(nanos, failed); }
+
+		/**
+		 * コマンドごとのヒストグラムを返します。
+		 *
+		 * @return コマンド名をキーとするヒストグラム。
+		 */
+		public synchronized Map<String, Histogram> commands() { return new TreeMap<String, Histogram>(commands); }
+
+		/** 実行したコマンドの回数を返します。 */
+		public synchronized long count() {
+			long n = 0;
+			for (Histogram h : commands.values()) n += h.count();
+			return n;
+		}
+
+		/** 実行したコマンドの実行時間の合計(ナノ秒)を返します。 */
+		public synchronized long totalNanos() {
+			long n = 0;
+			for (Histogram h : commands.values()) n += h.totalNanos();
+			return n;
+		}
+
+		/**
+		 * コマンドごとの実行回数と実行時間の合計を1行で返します。
+		 *
+		 * @return コマンド名=回数/実行時間 のカンマ区切り。
+		 */
+		@Override
+		public synchronized String toString() {
+			StringBuilder sb = new StringBuilder();
+			for (Map.Entry<String, Histogram> e : commands.entrySet()) {
+				if (sb.length() > 0) sb.append(", ");
+				sb.append(String.format("%s=%d/%.1fms", e.getKey(), e.getValue().count(), ms(e.getValue().totalNanos())));
+			}
+			return sb.toString();
+		}
+	}
+
+	private WebDriverMetrics() {}
+
+	/**
+	 * WebDriverMetricsのInstanceを返します。
+	 *
+	 * @return WebDriverMetrics型オブジェクト。
+	 */
+	public static WebDriverMetrics getInstance() { return INSTANCE; }
+
+	/**
+	 * WebDriverのコマンドを計測している場合はtrueを返します。
+	 * {@link util.base.InstrumentedWebDriver InstrumentedWebDriver}でWebDriverを生成するとtrueになります。
+	 */
+	public boolean isEnabled() { return enabled; }
+
+	void enable() { enabled = true; }
+
+	/**
+	 * コマンド1回の実行時間を記録します。
+	 *
+	 * @param command コマンド名。
+	 * @param locator 要素の検索・操作に使用したロケーター。無い場合はnull。
+	 * @param nanos 実行時間(ナノ秒)。
+	 * @param failed 例外が発生した場合はtrue。
+	 */
+	public void record(String command, String locator, long nanos, boolean failed) {
+		Histogram c = commands.get(command);
+		if (c == null) {
+			c = new Histogram();
+			Histogram existing = commands.putIfAbsent(command, c);
+			if (existing != null) c = existing;
+		}
+		c.record(nanos, failed);
+		if (locator != null) {
+			Histogram h;
+			synchronized (locators) { h = histogram(locators, locator); }
+			h.record(nanos, failed);
+		}
+		TestBreakdown test = current.get();
+		if (test != null) test.record(command, nanos, failed);
+	}
+
+	/**
+	 * テストの開始を記録し、このメソッドを呼び出したスレッドで実行したコマンドをテストの内訳に集計します。<br />
+	 * 同じ名前のテストが実行中の場合は、そのテストの内訳に集計します。
+	 *
+	 * @param test テストの名前。
+	 */
+	public void startTest(String test) {
+		TestBreakdown b = running.get(test);
+		if (b == null) {
+			b = new TestBreakdown(test);
+			TestBreakdown existing = running.putIfAbsent(test, b);
+			if (existing != null) b = existing;
+		}
+		current.set(b);
+	}
+
+	/**
+	 * このメソッドを呼び出したスレッドで実行するコマンドを、テストの内訳に集計しないようにします。
+	 * テストは終了しません。
+	 */
+	public void detach() { current.remove(); }
+
+	/**
+	 * テストの終了を記録し、テストの内訳を返します。
+	 *
+	 * @param test テストの名前。
+	 * @return テストの内訳。startTestメソッドを呼び出していない場合はnull。
+	 */
+	public TestBreakdown finishTest(String test) {
+		TestBreakdown b = running.remove(test);
+		if (b != null && current.get() == b) current.remove();
+		return b;
+	}
+
+	/**
+	 * コマンドごとのヒストグラムを返します。
+	 *
+	 * @return コマンド名をキーとするヒストグラム。
+	 */
+	public Map<String, Histogram> commands() { return new TreeMap<String, Histogram>(commands); }
+
+	/**
+	 * ロケーターごとのヒストグラムを返します。
+	 *
+	 * @return ロケーターをキーとするヒストグラム。
+	 */
+	public Map<String, Histogram> locators() {
+		synchronized (locators) { return new TreeMap<String, Histogram>(locators); }
+	}
+
+	/**
+	 * 記録した全てのヒストグラムを削除します。
+	 */
+	public void reset() {
+		commands.clear();
+		synchronized (locators) { locators.clear(); }
+	}
+
+	/**
+	 * コマンドごとの集計結果と、実行時間の合計が長いロケーターを複数行の文字列で返します。
+	 *
+	 * @param topLocators 出力するロケーターの件数。
+	 * @return 集計結果。
+	 */
+	public String summary(int topLocators) {
+		StringBuilder sb = new StringBuilder("commands:");
+		for (Map.Entry<String, Histogram> e : commands().entrySet()) sb.append(String.format("%n  %s: %s", e.getKey(), e.getValue()));
+		List<Map.Entry<String, Histogram>> list = new ArrayList<Map.Entry<String, Histogram>>(locators().entrySet());
+		Collections.sort(list, new Comparator<Map.Entry<String, Histogram>>() {
+			@Override
+			public int compare(Map.Entry<String, Histogram> a, Map.Entry<String, Histogram> b) {
+				return Long.valueOf(b.getValue().totalNanos()).compareTo(a.getValue().totalNanos());
+			}
+		});
+		sb.append(String.format("%nlocators:"));
+		for (Map.Entry<String, Histogram> e : list.subList(0, Math.min(topLocators, list.size()))) sb.append(String.format("%n  %s: %s", e.getKey(), e.getValue()));
+		return sb.toString();
+	}
+
+	private static Histogram histogram(Map<String, Histogram> map, String key) {
+		Histogram h = map.get(key);
+		if (h == null) {
+			h = new Histogram();
+			map.put(key, h);
+		}
+		return h;
+	}
+
+	private static double ms(long nanos) { return nanos / 1e6; }
+}
@@ -0,0 +1,301 @@
+package util.base;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import util.base.WebDriverFactory.Driver;
+
+/**
+ * 起動済みのWebDriverを再利用するためのセッションプールです。<br />
+ * WebDriverFactory.Driver型定数ごとに同時に貸し出すセッション数の上限を持ち、
+ * 返却されたセッションはCookie・Web Storage・URLを初期化して次の貸し出しまで保持します。
+ * 待機中のセッションは起動時の{@link util.base.DriverProfile DriverProfile}ごとに保持し、同じプロファイルの貸し出しにのみ再利用します。
+ * 待機中・貸し出し中を合わせたセッション数も種類ごとの上限までとし、上限に達した場合は別のプロファイルの待機中のセッションを終了します。<br />
+ * 貸し出し前にヘルスチェックを行い、貸し出し回数・経過時間の上限に達したセッションは破棄されます。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class WebDriverPool {
+	/** 返却時に表示するURLです。 */
+	public static final String RESET_URL = "about:blank";
+
+	/** WebDriverの種類ごとの同時貸し出し数の上限です。 */
+	private final int maxSize;
+	/** 1セッションあたりの貸し出し回数の上限です。 */
+	private final int maxLeases;
+	/** 1セッションあたりの生存時間の上限(ミリ秒)です。 */
+	private final long maxAgeMillis;
+	/** 貸し出し可能なセッションを待つ時間の上限(ミリ秒)です。 */
+	private final long leaseTimeoutMillis;
+
+	private final Map<Driver, Semaphore> permits = new EnumMap<Driver, Semaphore>(Driver.class);
+	private final Map<Driver, ConcurrentHashMap<DriverProfile, LinkedBlockingDeque<Session>>> idle = new EnumMap<Driver, ConcurrentHashMap<DriverProfile, LinkedBlockingDeque<Session>>>(Driver.class);
+	private final Map<WebDriver, Session> leased = new IdentityHashMap<WebDriver, Session>();
+
+	/**
+	 * プールで管理される1件のセッションです。
+	 */
+	private static final class Session {
+		final Driver type;
+		final DriverProfile profile;
+		final WebDriver driver;
+		final long createdAt = System.currentTimeMillis();
+		/** 最後に返却された時刻です。 */
+		long releasedAt;
+		int leases;
+		Session(Driver type, DriverProfile profile, WebDriver driver) { this.type = type; this.profile = profile; this.driver = driver; }
+	}
+
+	/**
+	 * @param maxSize WebDriverの種類ごとの同時貸し出し数の上限。
+	 * @param maxLeases 1セッションあたりの貸し出し回数の上限。
+	 * @param maxAgeMillis 1セッションあたりの生存時間の上限(ミリ秒)。
+	 * @param leaseTimeoutMillis 貸し出し可能なセッションを待つ時間の上限(ミリ秒)。
+	 */
+	public WebDriverPool(int maxSize, int maxLeases, long maxAgeMillis, long leaseTimeoutMillis) {
+		this.maxSize = maxSize;
+		this.maxLeases = maxLeases;
+		this.maxAgeMillis = maxAgeMillis;
+		this.leaseTimeoutMillis = leaseTimeoutMillis;
+		for (Driver type : Driver.values()) {
+			permits.put(type, new Semaphore(maxSize, true));
+			idle.put(type, new ConcurrentHashMap<DriverProfile, LinkedBlockingDeque<Session>>());
+		}
+	}
+
+	/**
+	 * 指定された種類のWebDriverを、システムプロパティ webdriver.profile で指定されたプロファイルで貸し出します。
+	 *
+	 * @param type WebDriverを指定するWebDriverFactory.Driver型定数。
+	 * @return 貸し出されたWebDriver型オブジェクト。
+	 * @see #lease(Driver, DriverProfile)
+	 */
+	public WebDriver lease(Driver type) { return lease(type, DriverProfile.fromSystemProperties()); }
+
+	/**
+	 * 指定された種類・プロファイルのWebDriverを貸し出します。<br />
+	 * 同じプロファイルで待機中のセッションが無い場合は新しいInstanceを生成します。
+	 * 待機中・貸し出し中を合わせたセッション数が上限に達している場合は、別のプロファイルで最も長く使われていないセッションを終了してから生成します。
+	 * 同時貸し出し数が上限に達している場合は返却を待ちます。同時貸し出し数の上限はプロファイルに関わらず種類ごとに共通です。
+	 *
+	 * @param type WebDriverを指定するWebDriverFactory.Driver型定数。
+	 * @param profile ブラウザの起動時の設定。
+	 * @return 貸し出されたWebDriver型オブジェクト。
+	 */
+	public WebDriver lease(Driver type, DriverProfile profile) {
+		Semaphore permit = permits.get(type);
+		try {
+			if (!permit.tryAcquire(leaseTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new WebDriverException("No pooled " + type + " session became available within " + leaseTimeoutMillis + "ms.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new WebDriverException(e);
+		}
+
+		try {
+			Session session;
+			while ((session = queue(type, profile).pollFirst()) != null) {
+				if (!isExpired(session) && isHealthy(session)) break;
+				destroy(session);
+			}
+			if (session == null) {
+				evictIdle(type, profile);
+				session = new Session(type, profile, WebDriverFactory.newInstance(type, profile, false));
+			}
+			session.leases++;
+			synchronized (leased) { leased.put(session.driver, session); }
+			return session.driver;
+		} catch (ClassNotFoundException e) {
+			permit.release();
+			throw new IllegalArgumentException("Unsupported driver: " + type, e);
+		} catch (RuntimeException e) {
+			permit.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * 貸し出したWebDriverを返却します。<br />
+	 * Cookie・Web Storageを削除して{@link util.base.WebDriverPool#RESET_URL}を表示した後、次の貸し出しまで保持します。
+	 *
+	 * @param driver 返却するWebDriver型オブジェクト。
+	 * @see #release(WebDriver, String)
+	 */
+	public void release(WebDriver driver) { release(driver, RESET_URL); }
+
+	/**
+	 * 貸し出したWebDriverを返却します。<br />
+	 * Cookie・Web Storageを削除して指定されたURLを表示した後、次の貸し出しまで保持します。
+	 * 初期化に失敗したセッションは終了されます。プールから貸し出されたものではないWebDriverは終了されます。
+	 *
+	 * @param driver 返却するWebDriver型オブジェクト。
+	 * @param resetUrl 返却時に表示するURL。テストのbaseUrl等。
+	 */
+	public void release(WebDriver driver, String resetUrl) {
+		Session session;
+		synchronized (leased) {
+			session = leased.remove(driver);
+			// 貸し出し後にInstrumentedWebDriverで計測を開始したWebDriverは、元のWebDriverで返却を受け付ける。
+			if (session == null && InstrumentedWebDriver.isInstrumented(driver)) session = leased.remove(InstrumentedWebDriver.unwrap(driver));
+		}
+		if (session == null) {
+			driver.quit();
+			return;
+		}
+		try {
+			if (session.leases >= maxLeases || isExpired(session)) {
+				destroy(session);
+			} else {
+				reset(session, resetUrl);
+				session.releasedAt = System.currentTimeMillis();
+				queue(session.type, session.profile).offerFirst(session);
+			}
+		} catch (RuntimeException e) {
+			// WebDriverException以外(javascriptの戻り値の型の違い等)でも、初期化できなかったセッションは終了する。
+			destroy(session);
+		} finally {
+			permits.get(session.type).release();
+		}
+	}
+
+	/**
+	 * 待機中・貸し出し中の全てのセッションを終了します。
+	 */
+	public void shutdown() {
+		List<Session> sessions = new ArrayList<Session>();
+		for (ConcurrentHashMap<DriverProfile, LinkedBlockingDeque<Session>> queues : idle.values()) {
+			for (LinkedBlockingDeque<Session> queue : queues.values()) queue.drainTo(sessions);
+		}
+		synchronized (leased) {
+			sessions.addAll(leased.values());
+			leased.clear();
+		}
+		for (Session session : sessions) destroy(session);
+	}
+
+	/**
+	 * 待機中のセッション数を返します。
+	 *
+	 * @param type WebDriverを指定するWebDriverFactory.Driver型定数。
+	 * @return 全てのプロファイルの待機中のセッション数。
+	 */
+	public int idleCount(Driver type) {
+		int n = 0;
+		for (LinkedBlockingDeque<Session> queue : idle.get(type).values()) n += queue.size();
+		return n;
+	}
+
+	/**
+	 * 指定されたプロファイルの待機中のセッション数を返します。
+	 *
+	 * @param type WebDriverを指定するWebDriverFactory.Driver型定数。
+	 * @param profile ブラウザの起動時の設定。
+	 * @return 待機中のセッション数。
+	 */
+	public int idleCount(Driver type, DriverProfile profile) { return queue(type, profile).size(); }
+
+	/**
+	 * 貸し出し中のセッション数を返します。
+	 *
+	 * @param type WebDriverを指定するWebDriverFactory.Driver型定数。
+	 * @return 貸し出し中のセッション数。
+	 */
+	public int leasedCount(Driver type) { return maxSize - permits.get(type).availablePermits(); }
+
+	/**
+	 * 種類・プロファイルごとの待機中のセッションのキューを返します。
+	 */
+	private LinkedBlockingDeque<Session> queue(Driver type, DriverProfile profile) {
+		ConcurrentHashMap<DriverProfile, LinkedBlockingDeque<Session>> queues = idle.get(type);
+		LinkedBlockingDeque<Session> queue = queues.get(profile);
+		if (queue == null) {
+			queue = new LinkedBlockingDeque<Session>();
+			LinkedBlockingDeque<Session> existing = queues.putIfAbsent(profile, queue);
+			if (existing != null) queue = existing;
+		}
+		return queue;
+	}
+
+	/**
+	 * 待機中・貸し出し中を合わせたセッション数が上限以下になるまで、別のプロファイルの待機中のセッションを終了します。<br />
+	 * 貸し出し中のセッション数には、これから生成するセッションの分も含まれています。
+	 *
+	 * @param type WebDriverを指定するWebDriverFactory.Driver型定数。
+	 * @param keep これから生成するセッションのプロファイル。
+	 */
+	private void evictIdle(Driver type, DriverProfile keep) {
+		while (leasedCount(type) + idleCount(type) > maxSize) {
+			Session eldest = null;
+			for (Map.Entry<DriverProfile, LinkedBlockingDeque<Session>> e : idle.get(type).entrySet()) {
+				if (e.getKey().equals(keep)) continue;
+				// 返却されたセッションは先頭に追加されるため、末尾が最も長く使われていないセッションになる。
+				Session last = e.getValue().peekLast();
+				if (last != null && (eldest == null || last.releasedAt < eldest.releasedAt)) eldest = last;
+			}
+			if (eldest == null) return;
+			if (queue(type, eldest.profile).removeLastOccurrence(eldest)) destroy(eldest);
+		}
+	}
+
+	/**
+	 * Cookie・Web Storageを削除し、URLを初期化します。<br />
+	 * Web Storageはオリジン単位のため、ページを移動する前に削除します。
+	 */
+	private void reset(Session session, String url) {
+		WebDriver driver = session.driver;
+		driver.manage().deleteAllCookies();
+		if (driver instanceof JavascriptExecutor) {
+			try {
+				((JavascriptExecutor) driver).executeScript(
+					"try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}"
+				);
+			} catch (UnsupportedOperationException e) {
+				// javascriptが無効なWebDriverではWeb Storageを扱えないため無視する。
+			}
+		}
+		driver.get(url);
+		Selector.invalidate(driver);
+	}
+
+	/**
+	 * セッションが応答可能かどうかを返します。
+	 */
+	private boolean isHealthy(Session session) {
+		try {
+			session.driver.getWindowHandle();
+			return true;
+		} catch (WebDriverException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * セッションが生存時間の上限を超えているかどうかを返します。
+	 */
+	private boolean isExpired(Session session) {
+		return System.currentTimeMillis() - session.createdAt >= maxAgeMillis;
+	}
+
+	/**
+	 * セッションを終了します。終了時のエラーは無視されます。
+	 */
+	private void destroy(Session session) {
+		try {
+			session.driver.quit();
+		} catch (WebDriverException e) {
+			System.out.println(e);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package util.base.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import util.base.DriverBinaries;
+
+/**
+ * DriverBinariesクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class DriverBinariesTest {
+
+	/**
+	 * platformメソッドのテスト
+	 */
+	@Test
+	public void platformTest01() {
+		assertThat("OS-アーキテクチャの形式であること。", DriverBinaries.platform().matches("(windows|mac|linux)-(x64|x86|arm64)"), is(true));
+		boolean windows = DriverBinaries.platform().startsWith("windows");
+		assertThat("Windowsの場合のみ拡張子が付くこと。", DriverBinaries.executable("chromedriver"), is(windows ? "chromedriver.exe" : "chromedriver"));
+	}
+
+	/**
+	 * resolveメソッドのテスト
+	 */
+	@Test
+	public void resolveTest01() throws IOException {
+		File exe = File.createTempFile("resolveTest01", ".bin");
+		exe.deleteOnExit();
+		exe.setExecutable(true);
+		System.setProperty("resolveTest01.driver", exe.getPath());
+		try {
+			assertThat("システムプロパティで指定した実行ファイルが見つかること。", DriverBinaries.resolve("resolveTest01", "resolveTest01.driver"), is(exe.getAbsoluteFile()));
+			System.setProperty("resolveTest01.driver", "none");
+			assertThat("2回目以降は前回の結果を返すこと。", DriverBinaries.resolve("resolveTest01", "resolveTest01.driver"), is(exe.getAbsoluteFile()));
+		} finally {
+			System.clearProperty("resolveTest01.driver");
+		}
+	}
+
+	/**
+	 * resolveメソッドのテスト
+	 */
+	@Test
+	public void resolveTest02() {
+		try {
+			DriverBinaries.resolve("resolveTest02-missing", null);
+			fail("例外が発生すること。");
+		} catch (IllegalStateException e) {
+			assertThat("検索したフォルダがメッセージに含まれること。", e.getMessage().contains(new File(DriverBinaries.cacheDir(), DriverBinaries.platform()).getPath()), is(true));
+		}
+	}
+
+	/**
+	 * resolveメソッドのテスト
+	 */
+	@Test
+	public void resolveTest03() throws IOException {
+		File exe = File.createTempFile("resolveTest03", ".bin");
+		exe.deleteOnExit();
+		exe.setExecutable(false);
+		System.setProperty("resolveTest03.driver", exe.getPath());
+		try {
+			DriverBinaries.resolve("resolveTest03", "resolveTest03.driver");
+			fail("例外が発生すること。");
+		} catch (IllegalStateException e) {
+			assertThat("システムプロパティで指定したファイルには実行権限を付与しないこと。", exe.canExecute(), is(false));
+		} finally {
+			System.clearProperty("resolveTest03.driver");
+		}
+	}
+
+	/**
+	 * resolveメソッドのテスト
+	 */
+	@Test
+	public void resolveTest04() throws IOException {
+		File cache = File.createTempFile("resolveTest04", "");
+		cache.delete();
+		File dir = new File(cache, DriverBinaries.platform());
+		dir.mkdirs();
+		File exe = new File(dir, DriverBinaries.executable("resolveTest04"));
+		exe.createNewFile();
+		exe.setExecutable(false);
+		System.setProperty("webdriver.drivers.cache", cache.getPath());
+		try {
+			assertThat("キャッシュフォルダの実行ファイルが見つかること。", DriverBinaries.resolve("resolveTest04", null), is(exe.getAbsoluteFile()));
+			assertThat("キャッシュフォルダのファイルには実行権限が付与されること。", exe.canExecute(), is(true));
+		} finally {
+			System.clearProperty("webdriver.drivers.cache");
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package util.base.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import util.base.DriverProfile;
+import util.base.DriverProfile.PageLoad;
+import util.base.WebDriverFactory;
+
+/**
+ * DriverProfileクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class DriverProfileTest {
+
+	/**
+	 * namedメソッドのテスト
+	 */
+	@Test
+	public void namedTest01() {
+		assertThat("名前で既定のプロファイルを取得できること。", DriverProfile.named("fast"), is(sameInstance(DriverProfile.FAST)));
+		assertThat("大文字・小文字を区別しないこと。", DriverProfile.named("HEADLESS"), is(sameInstance(DriverProfile.HEADLESS)));
+		try {
+			DriverProfile.named("unknown");
+			fail("例外が発生すること。");
+		} catch (IllegalArgumentException e) {
+			assertThat("プロファイル名がメッセージに含まれること。", e.getMessage().contains("unknown"), is(true));
+		}
+	}
+
+	/**
+	 * withTemplate・withPageLoadメソッドのテスト
+	 */
+	@Test
+	public void withTest01() {
+		DriverProfile p = DriverProfile.FAST.withTemplate(new File("profiles/seed")).withPageLoad(PageLoad.NONE);
+		assertThat("雛形のディレクトリが設定されること。", p.getTemplate(), is(new File("profiles/seed")));
+		assertThat("ページ読み込みの待機方法が設定されること。", p.getPageLoad().capability(), is("none"));
+		assertThat("他の設定が引き継がれること。", p.isHeadless() && p.isLightweight(), is(true));
+		assertThat("元のプロファイルが変更されないこと。", DriverProfile.FAST.getTemplate() == null, is(true));
+		assertThat("設定が異なるプロファイルは等しくないこと。", p.equals(DriverProfile.FAST), is(false));
+		assertThat("設定が同じプロファイルは等しいこと。", DriverProfile.FAST.withPageLoad(PageLoad.EAGER), is(DriverProfile.FAST));
+	}
+
+	/**
+	 * fromSystemPropertiesメソッドのテスト
+	 */
+	@Test
+	public void fromSystemPropertiesTest01() {
+		System.setProperty("webdriver.profile", "headless");
+		try {
+			assertThat("システムプロパティで指定したプロファイルを取得できること。", DriverProfile.fromSystemProperties(), is(DriverProfile.HEADLESS));
+		} finally {
+			System.clearProperty("webdriver.profile");
+		}
+		assertThat("既定値はdefaultであること。", DriverProfile.fromSystemProperties(), is(DriverProfile.DEFAULT));
+	}
+
+	/**
+	 * FirefoxDriverでヘッドレスモードのプロファイルを指定した場合のテスト
+	 */
+	@Test
+	public void firefoxTest01() {
+		try {
+			WebDriverFactory.newFirefoxDriver(DriverProfile.HEADLESS);
+			fail("例外が発生すること。");
+		} catch (IllegalArgumentException e) {
+			assertThat("プロファイルがメッセージに含まれること。", e.getMessage().contains("headless"), is(true));
+		}
+	}
+}
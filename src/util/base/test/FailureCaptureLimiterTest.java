@@ -0,0 +1,53 @@
+package util.base.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import util.base.FailureCaptureLimiter;
+
+/**
+ * FailureCaptureLimiterクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class FailureCaptureLimiterTest {
+
+	/**
+	 * tryAcquireメソッドのテスト
+	 */
+	@Test
+	public void tryAcquireTest01() {
+		FailureCaptureLimiter limiter = new FailureCaptureLimiter(60 * 1000L, 10);
+		AssertionError e = new AssertionError("expected: 1 but was: 2");
+		assertThat("最初の失敗は取得が許可されること。", limiter.tryAcquire("http://127.0.0.1/a", e), is(true));
+		assertThat("同じURLで同じ失敗は取得が許可されないこと。", limiter.tryAcquire("http://127.0.0.1/a", new AssertionError("expected: 1 but was: 2")), is(false));
+		assertThat("別のURLの失敗は取得が許可されること。", limiter.tryAcquire("http://127.0.0.1/b", e), is(true));
+		assertThat("別の失敗は取得が許可されること。", limiter.tryAcquire("http://127.0.0.1/a", new AssertionError("other")), is(true));
+	}
+
+	/**
+	 * tryAcquireメソッドのテスト
+	 */
+	@Test
+	public void tryAcquireTest02() {
+		FailureCaptureLimiter limiter = new FailureCaptureLimiter(60 * 1000L, 3);
+		int acquired = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (limiter.tryAcquire("http://127.0.0.1/" + i, new AssertionError())) acquired++;
+		}
+		assertThat("時間内の取得回数が上限を超えないこと。", acquired, is(3));
+	}
+
+	/**
+	 * tryAcquireメソッドのテスト
+	 */
+	@Test
+	public void tryAcquireTest03() {
+		FailureCaptureLimiter limiter = new FailureCaptureLimiter(0, 1);
+		AssertionError e = new AssertionError();
+		limiter.tryAcquire("http://127.0.0.1/a", e);
+		assertThat("時間を過ぎた後は再度取得が許可されること。", limiter.tryAcquire("http://127.0.0.1/a", e), is(true));
+	}
+}
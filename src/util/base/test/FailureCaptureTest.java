@@ -0,0 +1,109 @@
+package util.base.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import util.base.ScreenshotWriter;
+import util.base.TestBase;
+
+/**
+ * TestBaseを継承したテストの失敗時に、スクリーンショットとページソースが保存されることのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class FailureCaptureTest {
+	/** Failingクラスのスクリーンショット保存先ディレクトリです。nullの場合、Failingクラスのテストは失敗しません。 */
+	static volatile File saveDir;
+	/** Failingクラスで使用したWebDriverの終了回数です。 */
+	static volatile int quits;
+
+	/**
+	 * 失敗するTestBaseの実装クラスです。スクリーンショットを取得できるHtmlUnitDriverを使用します。
+	 */
+	public static class Failing extends TestBase {
+		{
+			if (saveDir != null) screenshotSavePath = saveDir.getAbsolutePath();
+		}
+
+		@Override
+		protected WebDriver createDriver() { return new ScreenshotHtmlUnitDriver(); }
+
+		@Test
+		public void failing() {
+			driver.get("data:text/html,<h1>failing</h1>");
+			if (saveDir != null) fail("failing " + System.nanoTime());
+		}
+	}
+
+	/**
+	 * 1x1ピクセルの画像をスクリーンショットとして返すHtmlUnitDriverです。
+	 */
+	public static class ScreenshotHtmlUnitDriver extends HtmlUnitDriver implements TakesScreenshot {
+		ScreenshotHtmlUnitDriver() { super(true); }
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <X> X getScreenshotAs(OutputType<X> target) {
+			if (target != OutputType.BYTES) throw new UnsupportedOperationException(String.valueOf(target));
+			try {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				ImageIO.write(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), "png", out);
+				return (X) out.toByteArray();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public void quit() {
+			quits++;
+			super.quit();
+		}
+	}
+
+	/**
+	 * captureOnFailureのテスト
+	 */
+	@Test
+	public void captureTest01() throws IOException {
+		File dir = File.createTempFile("failureCapture", "");
+		dir.delete();
+		saveDir = dir;
+		quits = 0;
+		try {
+			Result result = JUnitCore.runClasses(Failing.class);
+			ScreenshotWriter.getInstance().flush();
+
+			File failures = new File(new File(dir, Failing.class.getPackage().getName()), "failures");
+			assertThat("テストが失敗すること。", result.getFailureCount(), is(1));
+			assertThat("スクリーンショットが保存されること。", count(failures, ".png"), is(1));
+			assertThat("ページソースが保存されること。", count(failures, ".html"), is(1));
+			assertThat("保存の後にWebDriverが1回だけ終了されること。", quits, is(1));
+		} finally {
+			saveDir = null;
+		}
+	}
+
+	private static int count(File dir, final String ext) {
+		String[] names = dir.list(new FilenameFilter() {
+			@Override public boolean accept(File d, String name) { return name.endsWith(ext); }
+		});
+		return names == null ? 0 : names.length;
+	}
+}
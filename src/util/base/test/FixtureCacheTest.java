@@ -0,0 +1,110 @@
+package util.base.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import util.base.FixtureCache;
+
+/**
+ * FixtureCacheクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class FixtureCacheTest {
+	private File dir;
+	private FixtureCache cache;
+
+	@Before
+	public void setUp() throws IOException {
+		dir = File.createTempFile("FixtureCacheTest", "");
+		dir.delete();
+		dir.mkdirs();
+		cache = new FixtureCache(2, dir);
+	}
+
+	@After
+	public void tearDown() {
+		cache.clear();
+		dir.delete();
+	}
+
+	/**
+	 * putメソッドのテスト
+	 */
+	@Test
+	public void putTest01() {
+		String first = cache.put("<h1>fixture</h1>");
+		String second = cache.put("<h1>fixture</h1>");
+		assertThat("同じ内容のhtmlは同じキーになること。", second, is(first));
+		assertThat("同じ内容のhtmlは一度だけ格納されること。", cache.memoryCount(), is(1));
+		assertThat("格納したhtmlが取得できること。", new String(cache.get(first)), is("<h1>fixture</h1>"));
+	}
+
+	/**
+	 * putメソッドのテスト
+	 */
+	@Test
+	public void putTest02() {
+		String first = cache.put("<p>1</p>");
+		cache.put("<p>2</p>");
+		cache.put("<p>3</p>");
+		assertThat("上限を超えた場合は最も長く使用されていないhtmlが破棄されること。", cache.get(first), is(nullValue()));
+		assertThat("上限の件数を超えて格納されないこと。", cache.memoryCount(), is(2));
+	}
+
+	/**
+	 * putメソッドのテスト
+	 */
+	@Test
+	public void putTest03() {
+		String first = cache.put("<p>1</p>");
+		String second = cache.put("<p>2</p>");
+		cache.put("<p>1</p>");
+		cache.put("<p>3</p>");
+		assertThat("再度格納したhtmlは破棄されないこと。", cache.get(first), is(notNullValue()));
+		assertThat("最も長く使用されていないhtmlが破棄されること。", cache.get(second), is(nullValue()));
+	}
+
+	/**
+	 * toFileメソッドのテスト
+	 */
+	@Test
+	public void toFileTest01() throws IOException {
+		File first = cache.toFile("<h1>fixture</h1>");
+		long modified = first.lastModified();
+		File second = cache.toFile("<h1>fixture</h1>");
+		assertThat("同じ内容のhtmlは同じファイルになること。", second, is(first));
+		assertThat("同じ内容のhtmlは再度書き込まれないこと。", second.lastModified(), is(modified));
+	}
+
+	/**
+	 * toFileメソッドのテスト
+	 */
+	@Test
+	public void toFileTest02() throws IOException {
+		File first = cache.toFile("<p>1</p>");
+		cache.toFile("<p>2</p>");
+		cache.toFile("<p>3</p>");
+		assertThat("上限を超えた場合は最も長く使用されていないファイルが削除されること。", first.exists(), is(false));
+		assertThat("上限の件数を超えて保持されないこと。", cache.fileCount(), is(2));
+	}
+
+	/**
+	 * clearメソッドのテスト
+	 */
+	@Test
+	public void clearTest() throws IOException {
+		File file = cache.toFile("<h1>fixture</h1>");
+		cache.put("<h1>fixture</h1>");
+		cache.clear();
+		assertThat("ファイルが削除されること。", file.exists(), is(false));
+		assertThat("メモリ上のhtmlが削除されること。", cache.memoryCount(), is(0));
+	}
+}
@@ -0,0 +1,160 @@
+package util.base.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import util.base.FixtureServer;
+import util.base.InstrumentedWebDriver;
+import util.base.Selector;
+import util.base.WebDriverFactory.Driver;
+import util.base.WebDriverMetrics;
+import util.base.WebDriverPool;
+
+/**
+ * InstrumentedWebDriverクラス・WebDriverMetricsクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class InstrumentedWebDriverTest {
+	private static final String HTML = "<html><body><ul id=\"list\"><li>a</li><li>b</li><li>c</li></ul></body></html>";
+
+	private WebDriver original;
+	private WebDriver driver;
+	private WebDriverMetrics metrics = WebDriverMetrics.getInstance();
+
+	@Before
+	public void setUp() {
+		original = new HtmlUnitDriver(true);
+		driver = InstrumentedWebDriver.wrap(original);
+		metrics.reset();
+		driver.get(FixtureServer.getInstance().register(HTML));
+	}
+
+	@After
+	public void tearDown() {
+		driver.quit();
+	}
+
+	/**
+	 * wrapメソッドのテスト
+	 */
+	@Test
+	public void wrapTest01() {
+		assertThat("計測するWebDriverであること。", InstrumentedWebDriver.isInstrumented(driver), is(true));
+		assertThat("元のWebDriverと同じインターフェイスを実装していること。", driver instanceof JavascriptExecutor, is(true));
+		assertThat("元のWebDriverを取得できること。", InstrumentedWebDriver.unwrap(driver), is(sameInstance(original)));
+		assertThat("WrapsDriverで元のWebDriverを取得できること。", ((WrapsDriver) driver).getWrappedDriver(), is(sameInstance(original)));
+		assertThat("計測中のWebDriverを再度wrapしても同じInstanceであること。", InstrumentedWebDriver.wrap(driver), is(sameInstance(driver)));
+		assertThat("switchToで戻るWebDriverが計測するWebDriverであること。", driver.switchTo().defaultContent(), is(sameInstance(driver)));
+		assertThat("計測を開始していること。", metrics.isEnabled(), is(true));
+	}
+
+	/**
+	 * equalsメソッド・hashCodeメソッドのテスト
+	 */
+	@Test
+	public void equalsTest01() {
+		WebElement e1 = driver.findElement(By.cssSelector("#list"));
+		WebElement e2 = driver.findElement(By.cssSelector("#list"));
+
+		assertThat("元のWebDriverと等しいこと。", driver.equals(original), is(true));
+		assertThat("元のWebDriverとhashCodeが等しいこと。", driver.hashCode(), is(original.hashCode()));
+		assertThat("同じ要素を別々に検索した場合も等しいこと。", e1.equals(e2), is(true));
+		assertThat("同じ要素を別々に検索した場合もhashCodeが等しいこと。", e1.hashCode(), is(e2.hashCode()));
+		assertThat("元のWebElementと等しいこと。", e1.equals(InstrumentedWebDriver.unwrap(e2)), is(true));
+		assertThat("異なる要素とは等しくないこと。", e1.equals(driver.findElement(By.cssSelector("body"))), is(false));
+	}
+
+	/**
+	 * コマンドの計測のテスト
+	 */
+	@Test
+	public void recordTest01() {
+		String text = new Selector("#list li", driver).getText();
+		List<WebElement> items = driver.findElements(By.cssSelector("li"));
+
+		assertThat("コマンドの結果が変わらないこと。", text, is("a"));
+		assertThat("findElementの回数が記録されること。", metrics.commands().get("findElement").count(), is(1L));
+		assertThat("findElementsの回数が記録されること。", metrics.commands().get("findElements").count(), is(1L));
+		assertThat("要素のコマンドが記録されること。", metrics.commands().get("element.getText").count(), is(1L));
+		assertThat("getの回数が記録されること。", metrics.commands().get("get").count(), is(1L));
+		assertThat("取得したWebElementが計測するWebElementであること。", InstrumentedWebDriver.isInstrumented(items.get(2)), is(true));
+		assertThat("ロケーターごとに記録されること。", metrics.locators().get(By.cssSelector("#list li").toString()).count(), is(2L));
+	}
+
+	/**
+	 * コマンドの計測のテスト
+	 */
+	@Test
+	public void recordTest02() {
+		WebElement li = driver.findElement(By.cssSelector("li"));
+		Object tag = ((JavascriptExecutor) driver).executeScript("return arguments[0].tagName;", li);
+		assertThat("計測するWebElementをスクリプトの引数に渡せること。", String.valueOf(tag).toLowerCase(), is("li"));
+
+		try {
+			driver.findElement(By.cssSelector("#none"));
+			fail("例外が発生すること。");
+		} catch (RuntimeException e) {
+			assertThat("元の例外が発生すること。", InstrumentedWebDriver.isInstrumented(e), is(false));
+		}
+		assertThat("例外が発生したコマンドが記録されること。", metrics.commands().get("findElement").errors(), is(1L));
+	}
+
+	/**
+	 * startTest・finishTestメソッドのテスト
+	 */
+	@Test
+	public void finishTestTest01() {
+		metrics.startTest("finishTestTest01");
+		driver.findElement(By.cssSelector("li")).getText();
+		driver.getTitle();
+		WebDriverMetrics.TestBreakdown b = metrics.finishTest("finishTestTest01");
+		driver.getTitle();
+
+		assertThat("テストの終了までに実行したコマンドの回数が記録されること。", b.count(), is(3L));
+		assertThat("コマンドごとの内訳が記録されること。", b.commands().get("getTitle").count(), is(1L));
+		assertThat("終了したテストは再度取得できないこと。", metrics.finishTest("finishTestTest01"), is(nullValue()));
+	}
+
+	/**
+	 * Histogramクラスのテスト
+	 */
+	@Test
+	public void histogramTest01() {
+		for (int i = 1; i <= 100; i++) metrics.record("histogramTest01", null, i * 1000000L, i == 100);
+		WebDriverMetrics.Histogram h = metrics.commands().get("histogramTest01");
+
+		assertThat("回数が記録されること。", h.count(), is(100L));
+		assertThat("例外の回数が記録されること。", h.errors(), is(1L));
+		assertThat("最大値が記録されること。", h.maxNanos(), is(100000000L));
+		assertThat("p50が実際の値以上、2倍未満であること。", h.percentile(50) >= 50000000L && h.percentile(50) < 100000000L, is(true));
+		assertThat("p100が最大値であること。", h.percentile(100), is(100000000L));
+	}
+
+	/**
+	 * セッションプールとの組み合わせのテスト
+	 */
+	@Test
+	public void poolTest01() {
+		WebDriverPool pool = new WebDriverPool(1, 10, 60 * 1000L, 1000L);
+		try {
+			WebDriver leased = pool.lease(Driver.HTMLUNIT);
+			pool.release(InstrumentedWebDriver.wrap(leased));
+			assertThat("計測するWebDriverで返却できること。", pool.idleCount(Driver.HTMLUNIT), is(1));
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package util.base.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import util.base.LogWriter;
+import util.base.ScreenshotStore;
+import util.base.ScreenshotWriter;
+
+/**
+ * ScreenshotStoreクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class ScreenshotStoreTest {
+	private static final String URL = "http://127.0.0.1/fixture";
+	private File dir;
+
+	@Before
+	public void setUp() throws IOException {
+		dir = File.createTempFile("ScreenshotStoreTest", "");
+		dir.delete();
+		dir.mkdirs();
+	}
+
+	@After
+	public void tearDown() {
+		File[] files = dir.listFiles();
+		if (files != null) for (File file : files) file.delete();
+		dir.delete();
+	}
+
+	/**
+	 * storeメソッドのテスト
+	 */
+	@Test
+	public void storeTest01() throws IOException {
+		ScreenshotStore store = new ScreenshotStore(dir, false, 0.5);
+		byte[] png = png(image(0, 0));
+		store.store(new Date(1), URL, "test01", png);
+		store.store(new Date(2), URL, "test02", png);
+		assertThat("差分モードでない場合は全ての画像が保存されること。", countImages(), is(2));
+		assertThat("全ての画像が索引ファイルに記録されること。", readIndex().size(), is(2));
+	}
+
+	/**
+	 * storeメソッドのテスト
+	 */
+	@Test
+	public void storeTest02() throws IOException {
+		ScreenshotStore store = new ScreenshotStore(dir, true, 0.5);
+		store.store(new Date(1), URL, "full", png(image(0, 0)));
+		store.store(new Date(2), URL, "same", png(image(0, 0)));
+		store.store(new Date(3), URL, "small", png(image(10, 10)));
+		store.store(new Date(4), URL, "large", png(image(0, 100)));
+
+		List<String> index = readIndex();
+		assertThat("全ての画像が索引ファイルに記録されること。", index.size(), is(4));
+		assertThat("最初の画像は全体が保存されること。", index.get(0), containsString("\"type\":\"full\""));
+		assertThat("同一の画像は保存済みの画像を参照すること。", index.get(1), containsString("\"type\":\"ref\""));
+		assertThat("変化が小さい画像は差分が保存されること。", index.get(2), containsString("\"type\":\"delta\""));
+		assertThat("変化が大きい画像は全体が保存されること。", index.get(3), containsString("\"type\":\"full\""));
+		assertThat("参照した画像は保存されないこと。", countImages(), is(3));
+	}
+
+	/**
+	 * diffメソッドのテスト
+	 */
+	@Test
+	public void diffTest() {
+		assertThat("変化が無い場合は空の矩形を返すこと。", ScreenshotStore.diff(image(0, 0), image(0, 0)).isEmpty(), is(true));
+		assertThat("変化した範囲を返すこと。", ScreenshotStore.diff(image(0, 0), image(10, 10)), is(new Rectangle(10, 10, 10, 10)));
+		assertThat("大きさが異なる場合はnullを返すこと。", ScreenshotStore.diff(image(0, 0), new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB)), is(nullValue()));
+	}
+
+	/**
+	 * 100x100の白い画像に、(0, 0)の黒い10x10の矩形と、(x, y)から始まる黒い10x10の矩形を描画した画像を返します。
+	 */
+	private static BufferedImage image(int x, int y) {
+		BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+		for (int i = 0; i < 100; i++) for (int j = 0; j < 100; j++) image.setRGB(i, j, 0xffffff);
+		for (int i = 0; i < 10; i++) for (int j = 0; j < 10; j++) image.setRGB(i, j, 0);
+		if (y < 100) for (int i = x; i < x + 10; i++) for (int j = y; j < y + 10; j++) image.setRGB(i, j, 0);
+		else for (int i = 0; i < 100; i++) for (int j = 50; j < 100; j++) image.setRGB(i, j, 0);
+		return image;
+	}
+
+	private static byte[] png(BufferedImage image) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * 保存された画像(*.png)の数を返します。書き込み待ちの画像と索引ファイルを書き出してから数えます。
+	 */
+	private int countImages() {
+		flush();
+		String[] names = dir.list(new FilenameFilter() {
+			@Override public boolean accept(File d, String name) { return name.endsWith(".png"); }
+		});
+		return names == null ? 0 : names.length;
+	}
+
+	private List<String> readIndex() throws IOException {
+		flush();
+		List<String> lines = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new FileReader(new File(dir, ScreenshotStore.INDEX_FILE_NAME)));
+		try {
+			for (String line; (line = reader.readLine()) != null;) lines.add(line);
+		} finally {
+			reader.close();
+		}
+		return lines;
+	}
+
+	private static void flush() {
+		ScreenshotWriter.getInstance().flush();
+		LogWriter.getInstance().flush();
+	}
+}
@@ -0,0 +1,49 @@
+package util.base.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import util.base.ScreenshotWriter;
+
+/**
+ * ScreenshotWriterクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class ScreenshotWriterTest {
+	private File dir;
+
+	@Before
+	public void setUp() throws IOException {
+		dir = File.createTempFile("ScreenshotWriterTest", "");
+		dir.delete();
+	}
+
+	@After
+	public void tearDown() {
+		File[] files = dir.listFiles();
+		if (files != null) for (File file : files) file.delete();
+		dir.delete();
+	}
+
+	/**
+	 * writeメソッドとflushメソッドのテスト
+	 */
+	@Test
+	public void writeTest() {
+		ScreenshotWriter writer = ScreenshotWriter.getInstance();
+		byte[] png = new byte[] {(byte) 0x89, 'P', 'N', 'G'};
+		for (int i = 0; i < 100; i++) writer.write(dir, new Date(i), "http://127.0.0.1/" + i, png);
+		writer.flush();
+		assertThat("flushメソッドの呼び出し後に全ての画像が書き出されていること。", dir.listFiles().length, is(100));
+		assertThat("ファイルの内容が書き込まれていること。", dir.listFiles()[0].length(), is((long) png.length));
+	}
+}
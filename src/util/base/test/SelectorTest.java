@@ -15,9 +15,15 @@ import org.junit.Test;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.Point;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 import org.openqa.selenium.support.ui.Select;
 
+import util.base.ElementSnapshot;
+import util.base.ElementSnapshot.Property;
+import util.base.FixtureServer;
+import util.base.Selector;
 import util.base.TestBase;
 import util.base.WebDriverFactory;
 
@@ -40,7 +46,7 @@ public class SelectorTest extends TestBase {
 	@After
 	public void tearDown() {
 		//sleep(1000);
-		driver.quit();
+		super.tearDown();
 	}
 
 	/**
@@ -154,6 +160,54 @@ public class SelectorTest extends TestBase {
 		assertThat("指定要素の非存在確認ができること。", $("div#div1 p.kim").isElementPresent(), is(false));
 	}
 
+	/**
+	 * isElementPresentメソッドのテスト
+	 */
+	@Test
+	public void isElementPresentTest03() {
+		createFixtureAndGo(
+			"<div id=\"div1\">" +
+				StringUtils.repeat("<p class=\"tran\">Tran Kim Bach jumps over the lazy dog.</p>", 64) +
+			"</div>"
+		);
+		long start = System.currentTimeMillis();
+		boolean present = $("div#div1 p.kim").isElementPresent();
+		long elapsed = System.currentTimeMillis() - start;
+		assertThat("指定要素の非存在確認ができること。", present, is(false));
+		assertThat("implicitlyWaitを待たずに非存在確認ができること。", elapsed < 2000, is(true));
+	}
+
+	/**
+	 * isElementPresentメソッドのテスト
+	 */
+	@Test
+	public void isElementPresentTest04() {
+		createFixtureAndGo(
+			"<div id=\"div1\"></div>" +
+			"<script>setTimeout(function() { $('#div1').append('<p class=\"tran\">Tran</p>'); }, 300);</script>"
+		);
+		assertThat("指定時間内に出現した要素の存在確認ができること。", $("div#div1 p.tran").isElementPresent(5000), is(true));
+	}
+
+	/**
+	 * isElementPresentメソッドのテスト
+	 */
+	@Test
+	public void isElementPresentTest05() {
+		HtmlUnitDriver noScript = new HtmlUnitDriver(false);
+		try {
+			Selector.implicitlyWait(noScript, 5000);
+			noScript.get(FixtureServer.getInstance().register("<div id=\"div1\"></div>"));
+			long start = System.currentTimeMillis();
+			boolean present = new Selector("div#div1 p", noScript).isElementPresent(0);
+			long elapsed = System.currentTimeMillis() - start;
+			assertThat("javascriptが無効な場合も非存在確認ができること。", present, is(false));
+			assertThat("javascriptが無効な場合もimplicitlyWaitを待たずに非存在確認ができること。", elapsed < 2000, is(true));
+		} finally {
+			noScript.quit();
+		}
+	}
+
 	/**
 	 * getValueメソッドのテスト
 	 */
@@ -394,7 +448,7 @@ public class SelectorTest extends TestBase {
 		int x = 500;
 		int y = 100;
 		createTemporaryHtmlFileAndGo("<img id=\"img1\" style=\"position:absolute;\" onload=\"$(this).animate({top:400}, 'slow').animate({left:200}).animate({top:" + y + ",left:"+ x +"}, 'fast', 'linear');\" src=\"data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAABkAAAAYCAYAAAAPtVbGAAAAAXNSR0IArs4c6QAAAARnQU1BAACxjwv8YQUAAAAJcEhZcwAADsMAAA7DAcdvqGQAAASNSURBVEhLzZNZTFRXHMaHYV8LgjMjqCwjywhDQVZlNewMODADzBQtq0oFS4ECsgjaIgQpaSONdIAKpVE0XTACNpBGi0kVY3nqg6ZNG/vQpn0wpI4sAzL9+r+XK4TVl8b0S77k3HP/5/ud8z/38vAK9P+A6OZmceXyDZSVtyMzqwZKZS2UGfVQqc6gsqoTX3w5Dp1ugaveWFtCBga+wYGwfCgoNCe3Bbl5rcjLJxecX7YioxHRMeUYHpngVq3XhpDFxUUUnWjGbhclEpOrkZxSi5RD9Tgkb4A8rQFpikbI08k0TpXXIza+imrVaG65wiWs1oaQxjMaCHek0UIVgkNL6DSlCI8sQ9TBSgo8hfjEGshSGxCXcIqdDwoupto34LgzC909w1zKitZBBgdvwZlOsHO3Cg6CCIjdcyDxLsS+wGJERL2LyOhKJMlOE6yGABXkcrbG2TUbTruyyAqMjd3j0pa0CqLTzSMkNJfaUgeBKA7GxjZwFWdjr88xhB54B9EHq3H4SBvU2a10ijpqVSPNlyKQTrLLWU0nycR2YRL89ynZrBdaBent/RrH32pGQGARrKy9wOPxIBS4IjoyG0EhJcjIOodMVTN9XU2orbvEti4mrgr+AUVwo80Id8ixzT6C1nqjt+8ql7oGkpn1NtIVFbQbGfh8E8SEe+FyRwIGuxPQfV4GtUKFBLqP+tN9SEquw7HjHyI4pBje0gLs8VATIBLW1lKYmjnRezmXugbi4rqfjhwFcwtnRAdvQ02BJypzJGg+6YeLdUH07I18ZQiiIo+i+OQFhO4voXsqhaeE2kT3Z2UtgYmpiDZoBpFIxKWugZhSgYWVOwwMjNBW4YT2o4aY+vMR5HI566dPHuP9Nw1RmGSLgIAjiIk9AQ9PGQTCIFhYutJ6O2qxEdtmxi+0CsLnm8LQyAbGRgZ4fNMbI++ZQDc7BV9fX9bMePisCdoKjfBBWzvcPSIgEEjIbrQxE1hbGi4DNoUwR7Q048PT2RT6B374ZUCIh0MK/K6dYs2Mmbkf+4TQNIRCfTibvkBThEktYGTIQ6DEfBng5LhJu2TJiUiJsIM6/jXoJ17H87tSPLnhiD+u2rBmxswc47sXhbhUYQ6BrQGUURYI9TFHaoQNrC34LESeksSlroH0dF5AU54Lfromgf573y2tG5diqM0FZSoHqGNtkSezQ2uxCE7bjVlIb1cHl7oG8kz7N74744vnt8Ogv+PzUk9+KsYPPWJUqu3xUakID7rFsLcxpH/LAXPTT7nUNRBGcw+vY7bfD4vjIdDf9t7Sfw164rdrHrjf6YZfB9wx2r4HfAMeNBoNl7akdRBGujtNmOn3x+ItAn27d9nOwqVWsBdLbWHmtENe+LlfzNaOVItxrlTFpaxoQwijhckezHRJsXAzGPpRuqNRL/riwqGfjFzxGMHp3dRXgZjWSPFsootbvVqbQhgtPBqGtsMPM71+mL8ehMXRQApeMjNm5ph32o8D2NrNtCWE0T/0A87f+wTTn6VD2yqGtsVlyTSe/jwD8/e7qb9arnpjvRTyX+gVQIB/AfD39YjRWmp9AAAAAElFTkSuQmCC\" />");
-		sleep(2000);
+		waitForDomQuiet(5000);
 		saveScreenshot();
 		assertThat("指定した要素のページ上の位置が取得できること。", $("#img1").getLocation(), is(new Point(x, y)));
 	}
@@ -411,7 +465,7 @@ public class SelectorTest extends TestBase {
 			"<img id=\"img1\" style=\"position:absolute;\" onload=\"$(this).animate({top:500,width:" + w +",height:"+ h + "}).animate({left:500}).animate({top:0,left:0});\" src=\"" + imgData + "\" />" +
 			"<img id=\"img2\" style=\"position:absolute;\" onload=\"$(this).animate({top:400}).animate({left:200}).animate({top:100,left:500});\" src=\"" + imgData + "\" />"
 		);
-		sleep(2000);
+		waitForDomQuiet(5000);
 		saveScreenshot();
 		assertThat("指定した要素のサイズが取得できること。", $("#img1").getSize(), is(new Dimension(w, h)));
 	}
@@ -427,7 +481,7 @@ public class SelectorTest extends TestBase {
 			"<style>html{background:#ccd0d4}h1.loader{text-align:center;text-transform:uppercase;font-family:'Nunito',sans-serif;font-size:4.6875em;color:transparent;letter-spacing:.01em}.loader span{text-shadow:0 0 2px rgba(204,208,212,0.9),0 15px 25px rgba(0,0,0,0.3),0 -2px 3px rgba(0,0,0,0.1);animation:loading .85s ease-in-out infinite alternate}@keyframes loading{to{text-shadow:0 0 2px rgba(204,208,212,0.2),0 0 3px rgba(0,0,0,0.02),0 0 0 rgba(0,0,0,0)}}.loader span:nth-child(2){animation-delay:"+ expected + "}.loader span:nth-child(3){animation-delay:.30s}</style>" +
 			"<h1 class=\"loader\"><span>Tran</span> <span>Kim</span> <span>Bach</span></h1>"
 		);
-		sleep(2000);
+		waitForDomQuiet(5000);
 		saveScreenshot();
 		assertThat(
 			"指定した要素のCSSの指定したプロパティの値が取得できること。",
@@ -435,4 +489,113 @@ public class SelectorTest extends TestBase {
 		);
 	}
 
+	/**
+	 * snapshotメソッドのテスト
+	 */
+	@Test
+	public void snapshotTest() {
+		String expected = "Tran Kim Bach jumps over the lazy dog.";
+		createFixtureAndGo(
+			"<div id=\"div1\">" +
+				"<input type=\"text\" title=\"tran\" value=\"" + expected + "\" class=\"form-control input-lg\" disabled />" +
+			"</div>"
+		);
+		ElementSnapshot snapshot = $("div#div1 input").snapshot(
+			new String[] {"title"}, new String[0], Property.VALUE, Property.ENABLED, Property.DISPLAYED
+		);
+		saveScreenshot();
+		assertThat("value属性のString値が取得できること。", snapshot.getValue(), is(expected));
+		assertThat("有効状態が取得できること。", snapshot.isEnabled(), is(false));
+		assertThat("可視状態が取得できること。", snapshot.isDisplayed(), is(true));
+		assertThat("指定した属性の値を取得できること。", snapshot.getAttribute("title"), is("tran"));
+		assertThat("指定していないプロパティはnullであること。", snapshot.getText(), is(nullValue()));
+	}
+
+	/**
+	 * snapshotAllメソッドのテスト
+	 */
+	@Test
+	public void snapshotAllTest() {
+		createFixtureAndGo(
+			"<ul>" +
+				"<li>Tran</li>" +
+				"<li class=\"hide\">Kim</li>" +
+				"<li>Bach</li>" +
+			"</ul>"
+		);
+		List<ElementSnapshot> snapshots = $("ul li").snapshotAll(Property.TEXT, Property.DISPLAYED);
+		saveScreenshot();
+		assertThat("全ての要素のプロパティが取得できること。", snapshots.size(), is(3));
+		assertThat("表示テキストが取得できること。", snapshots.get(2).getText(), is("Bach"));
+		assertThat("不可視状態が取得できること。", snapshots.get(1).isDisplayed(), is(false));
+	}
+
+	/**
+	 * cachedメソッドのテスト
+	 */
+	@Test
+	public void cachedTest01() {
+		String expected = "TranKimBach";
+		createFixtureAndGo(
+			"<form>" +
+				"<input id=\"text1\" type=\"text\" name=\"q\" value=\"Tran\" class=\"form-control input-lg\" />" +
+			"</form>"
+		);
+		Selector text1 = $("#text1").cached();
+		String actual = text1.clear().sendKeys(expected).getValue();
+		saveScreenshot();
+		assertThat("メソッドチェーンの操作が反映されること。", actual, is(expected));
+		assertThat("要素の検索が1回だけであること。", text1.getLookupCount(), is(1));
+	}
+
+	/**
+	 * cachedメソッドのテスト
+	 */
+	@Test
+	public void cachedTest02() {
+		String expected = "Bach";
+		createFixtureAndGo("<div id=\"div1\"><p id=\"p1\">Tran</p></div>");
+		Selector p1 = $("#p1").cached();
+		p1.getText();
+		jsx.executeScript("document.getElementById('div1').innerHTML = '<p id=\"p1\">" + expected + "</p>';");
+		saveScreenshot();
+		assertThat("無効になった要素が再取得されること。", p1.getText(), is(expected));
+		assertThat("要素の検索が2回であること。", p1.getLookupCount(), is(2));
+	}
+
+	/**
+	 * waitUntilPresentメソッドのテスト
+	 */
+	@Test
+	public void waitUntilPresentTest01() {
+		String expected = "Tran Kim Bach";
+		createFixtureAndGo(
+			"<div id=\"div1\"></div>" +
+			"<script>setTimeout(function() { $('#div1').append('<p class=\"tran\">" + expected + "</p>'); }, 500);</script>"
+		);
+		saveScreenshot();
+		assertThat("後から追加された要素が取得できること。", $("div#div1 p.tran").waitUntilPresent(5000).getText(), is(expected));
+	}
+
+	/**
+	 * waitUntilPresentメソッドのテスト
+	 */
+	@Test(expected = TimeoutException.class)
+	public void waitUntilPresentTest02() {
+		createFixtureAndGo("<div id=\"div1\"></div>");
+		$("div#div1 p.kim").waitUntilPresent(200);
+	}
+
+	/**
+	 * waitUntilTextMatchesメソッドのテスト
+	 */
+	@Test
+	public void waitUntilTextMatchesTest() {
+		createFixtureAndGo(
+			"<button id=\"btn1\" onclick=\"var b = $(this); setTimeout(function() { b.text('Done: 42'); }, 300);\" class=\"btn btn-info\">Start</button>"
+		);
+		$("#btn1").click().waitUntilTextMatches("Done: \\d+", 5000);
+		saveScreenshot();
+		assertThat("変更後のボタンテキストが取得できること。", $("#btn1").getText(), is("Done: 42"));
+	}
 }
@@ -33,7 +33,7 @@ public class TestBaseTest extends TestBase {
 	@After
 	public void tearDown() {
 		//sleep(5000);
-		driver.quit();
+		super.tearDown();
 	}
 
 	/**
@@ -56,6 +56,17 @@ public class TestBaseTest extends TestBase {
 		assertThat("HTMLファイルの生成・表示ができること。", htmlFile.exists(), is(true));
 	}
 
+	/**
+	 * createFixtureAndGoメソッドのテスト
+	 */
+	@Test
+	public void createFixtureAndGoTest() {
+		String expected = "Created HTML Fixture";
+		String url = createFixtureAndGo("<h1>" + expected + "</h1>");
+		assertThat("htmlの配信・表示ができること。", driver.getCurrentUrl(), is(url));
+		assertThat("要素の取得ができること。", $("h1").getText(), is(expected));
+	}
+
 	/**
 	 * isAlertPresentメソッドのテスト
 	 */
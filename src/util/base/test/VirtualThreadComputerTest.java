@@ -0,0 +1,76 @@
+package util.base.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+import util.base.VirtualThreadComputer;
+import util.base.VirtualThreads;
+
+/**
+ * VirtualThreadComputerクラス・VirtualThreadsクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class VirtualThreadComputerTest {
+
+	/**
+	 * 並列に実行されるテストメソッドです。同時に実行している数の最大値と、実行したスレッドを記録します。
+	 */
+	public static class Sessions {
+		static final AtomicInteger running = new AtomicInteger();
+		static final AtomicInteger max = new AtomicInteger();
+		static final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+
+		private void session() throws InterruptedException {
+			threads.add(Thread.currentThread());
+			int n = running.incrementAndGet();
+			for (int m = max.get(); n > m && !max.compareAndSet(m, n); m = max.get());
+			Thread.sleep(100);
+			running.decrementAndGet();
+		}
+
+		@Test public void session1() throws InterruptedException { session(); }
+		@Test public void session2() throws InterruptedException { session(); }
+		@Test public void session3() throws InterruptedException { session(); }
+		@Test public void session4() throws InterruptedException { session(); }
+		@Test public void session5() throws InterruptedException { session(); }
+		@Test public void session6() throws InterruptedException { session(); }
+	}
+
+	/**
+	 * methodsメソッドのテスト
+	 */
+	@Test
+	public void methodsTest01() {
+		Sessions.max.set(0);
+		Sessions.threads.clear();
+		Result result = JUnitCore.runClasses(VirtualThreadComputer.methods(2), Sessions.class);
+
+		assertThat("全てのテストメソッドが実行されること。", result.getRunCount(), is(6));
+		assertThat("全てのテストメソッドが成功すること。", result.wasSuccessful(), is(true));
+		assertThat("同時に実行する数が上限と等しいこと。", Sessions.max.get(), is(2));
+		if (!VirtualThreads.isAvailable()) assertThat("OSのスレッドの数が上限以下であること。", Sessions.threads.size() <= 2, is(true));
+	}
+
+	/**
+	 * factoryメソッドのテスト
+	 */
+	@Test
+	public void factoryTest01() {
+		Thread t = VirtualThreads.factory("factoryTest01").newThread(new Runnable() {
+			@Override
+			public void run() {}
+		});
+		assertThat("スレッド名に接頭辞が付くこと。", t.getName(), is("factoryTest01-1"));
+		assertThat("仮想スレッドまたはデーモンスレッドであること。", t.isDaemon(), is(true));
+	}
+}
@@ -0,0 +1,121 @@
+package util.base.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+
+import util.base.DriverProfile;
+import util.base.WebDriverFactory.Driver;
+import util.base.WebDriverPool;
+
+/**
+ * WebDriverPoolクラスで提供されるメソッドのテストを行うためのクラスです。
+ *
+ * @author tatsuo1234567@gmail.com
+ */
+public class WebDriverPoolTest {
+	private WebDriverPool pool;
+
+	@Before
+	public void setUp() {
+		pool = new WebDriverPool(2, 2, 60 * 1000L, 1000L);
+	}
+
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * leaseメソッドのテスト
+	 */
+	@Test
+	public void leaseTest01() {
+		WebDriver first = pool.lease(Driver.HTMLUNIT);
+		pool.release(first);
+		WebDriver second = pool.lease(Driver.HTMLUNIT);
+		assertThat("返却されたセッションが再利用されること。", second, is(sameInstance(first)));
+	}
+
+	/**
+	 * leaseメソッドのテスト
+	 */
+	@Test
+	public void leaseTest02() {
+		WebDriver first = pool.lease(Driver.HTMLUNIT);
+		pool.release(first);
+		pool.release(pool.lease(Driver.HTMLUNIT));
+		WebDriver third = pool.lease(Driver.HTMLUNIT);
+		assertThat("貸し出し回数の上限に達したセッションが破棄されること。", third == first, is(false));
+	}
+
+	/**
+	 * leaseメソッドのテスト
+	 */
+	@Test
+	public void leaseTest03() {
+		WebDriver first = pool.lease(Driver.HTMLUNIT, DriverProfile.DEFAULT);
+		pool.release(first);
+		WebDriver second = pool.lease(Driver.HTMLUNIT, DriverProfile.FAST);
+		assertThat("別のプロファイルのセッションが再利用されないこと。", second == first, is(false));
+		assertThat("待機中のセッションがプロファイルごとに保持されること。", pool.idleCount(Driver.HTMLUNIT, DriverProfile.DEFAULT), is(1));
+		pool.release(second);
+		assertThat("待機中のセッション数が全てのプロファイルの合計であること。", pool.idleCount(Driver.HTMLUNIT), is(2));
+	}
+
+	/**
+	 * leaseメソッドのテスト
+	 */
+	@Test
+	public void leaseTest04() {
+		WebDriverPool single = new WebDriverPool(1, 10, 60 * 1000L, 1000L);
+		try {
+			WebDriver first = single.lease(Driver.HTMLUNIT, DriverProfile.DEFAULT);
+			single.release(first);
+			single.release(single.lease(Driver.HTMLUNIT, DriverProfile.FAST));
+			assertThat("別のプロファイルの待機中のセッションが終了されること。", single.idleCount(Driver.HTMLUNIT, DriverProfile.DEFAULT), is(0));
+			assertThat("待機中のセッション数が上限を超えないこと。", single.idleCount(Driver.HTMLUNIT), is(1));
+			WebDriver third = single.lease(Driver.HTMLUNIT, DriverProfile.DEFAULT);
+			assertThat("終了されたセッションが再利用されないこと。", third == first, is(false));
+			assertThat("交互に貸し出しても待機中のセッションが残らないこと。", single.idleCount(Driver.HTMLUNIT), is(0));
+		} finally {
+			single.shutdown();
+		}
+	}
+
+	/**
+	 * releaseメソッドのテスト
+	 */
+	@Test
+	public void releaseTest() {
+		WebDriver driver = pool.lease(Driver.HTMLUNIT);
+		driver.get("data:text/html,<h1>pooled</h1>");
+		pool.release(driver);
+		assertThat("返却時にURLが初期化されること。", driver.getCurrentUrl(), is(WebDriverPool.RESET_URL));
+	}
+
+	/**
+	 * releaseメソッドのテスト
+	 */
+	@Test
+	public void releaseTest02() {
+		WebDriver driver = pool.lease(Driver.HTMLUNIT);
+		pool.release(driver, "data:text/html,<h1>base</h1>");
+		assertThat("返却時に指定したURLが表示されること。", driver.getCurrentUrl(), is("data:text/html,<h1>base</h1>"));
+		assertThat("返却したセッションが待機中になること。", pool.idleCount(Driver.HTMLUNIT), is(1));
+	}
+
+	/**
+	 * leasedCountメソッドのテスト
+	 */
+	@Test
+	public void leasedCountTest() {
+		pool.lease(Driver.HTMLUNIT);
+		pool.lease(Driver.HTMLUNIT);
+		assertThat("貸し出し中のセッション数が取得できること。", pool.leasedCount(Driver.HTMLUNIT), is(2));
+	}
+}